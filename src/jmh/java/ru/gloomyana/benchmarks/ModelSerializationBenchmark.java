@@ -0,0 +1,106 @@
+package ru.gloomyana.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.gloomyana.models.BookingDatesModel;
+import ru.gloomyana.models.BookingRequestModel;
+import ru.gloomyana.models.BookingResponseModel;
+import ru.gloomyana.models.CreateBookingResponseModel;
+
+import java.io.IOException;
+
+/**
+ * Serialization cost of the booking models per mapper setup. {@code fresh} builds a new ObjectMapper
+ * for every call, which is what REST Assured's default Jackson factory does; the other setups reuse one.
+ * The {@code record*} benchmarks map the same JSON onto {@link RecordModels}.
+ * Run with {@code gradle jmh}; the gc profiler adds allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+public class ModelSerializationBenchmark {
+
+    @Param({"fresh", "reused", "afterburner", "blackbird"})
+    String mapper;
+
+    private ObjectMapper shared;
+    private BookingRequestModel bookingRequest;
+    private RecordModels.Booking bookingRecord;
+    private byte[] bookingJson, createBookingJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        shared = newMapper();
+        bookingRequest = BookingRequestModel.builder()
+                .firstname("Sally")
+                .lastname("Brown")
+                .totalPrice(111)
+                .depositPaid(true)
+                .bookingDatesModel(new BookingDatesModel("2023-11-11", "2023-11-12"))
+                .additionalNeeds("Breakfast")
+                .build();
+        bookingRecord = new RecordModels.Booking("Sally", "Brown", 111, true,
+                new RecordModels.BookingDates("2023-11-11", "2023-11-12"), "Breakfast");
+        bookingJson = shared.writeValueAsBytes(bookingRequest);
+        createBookingJson = ("{\"bookingid\":1,\"booking\":" + new String(bookingJson) + "}").getBytes();
+    }
+
+    private ObjectMapper newMapper() {
+        switch (mapper) {
+            case "afterburner":
+                return new ObjectMapper().registerModule(new AfterburnerModule());
+            case "blackbird":
+                return new ObjectMapper().registerModule(new BlackbirdModule());
+            default:
+                return new ObjectMapper();
+        }
+    }
+
+    private ObjectMapper mapper() {
+        return mapper.equals("fresh") ? newMapper() : shared;
+    }
+
+    @Benchmark
+    public byte[] serializeBookingRequest() throws IOException {
+        return mapper().writeValueAsBytes(bookingRequest);
+    }
+
+    @Benchmark
+    public byte[] serializeBookingDates() throws IOException {
+        return mapper().writeValueAsBytes(bookingRequest.getBookingDatesModel());
+    }
+
+    @Benchmark
+    public BookingRequestModel deserializeBookingRequest() throws IOException {
+        return mapper().readValue(bookingJson, BookingRequestModel.class);
+    }
+
+    @Benchmark
+    public BookingResponseModel deserializeBookingResponse() throws IOException {
+        return mapper().readValue(bookingJson, BookingResponseModel.class);
+    }
+
+    @Benchmark
+    public CreateBookingResponseModel deserializeCreateBookingResponse() throws IOException {
+        return mapper().readValue(createBookingJson, CreateBookingResponseModel.class);
+    }
+
+    @Benchmark
+    public byte[] recordSerializeBooking() throws IOException {
+        return mapper().writeValueAsBytes(bookingRecord);
+    }
+
+    @Benchmark
+    public RecordModels.Booking recordDeserializeBooking() throws IOException {
+        return mapper().readValue(bookingJson, RecordModels.Booking.class);
+    }
+
+    @Benchmark
+    public RecordModels.CreateBookingResponse recordDeserializeCreateBookingResponse() throws IOException {
+        return mapper().readValue(createBookingJson, RecordModels.CreateBookingResponse.class);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.gloomyana.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Record counterparts of the Lombok models in ru.gloomyana.models, with the same JSON shape
+public class RecordModels {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record BookingDates(String checkin, String checkout) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Booking(String firstname,
+                          String lastname,
+                          @JsonProperty("totalprice") int totalPrice,
+                          @JsonProperty("depositpaid") boolean depositPaid,
+                          @JsonProperty("bookingdates") BookingDates bookingDates,
+                          @JsonProperty("additionalneeds") String additionalNeeds) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record CreateBookingResponse(@JsonProperty("bookingid") int bookingId,
+                                        @JsonProperty("booking") Booking booking) {
+    }
+}
@@ -0,0 +1,40 @@
+package ru.gloomyana.benchmarks;
+
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.gloomyana.helpers.JsonSchemas;
+
+import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
+
+/**
+ * Cost of validating one create-booking response. {@code perCall} builds the matcher the way a spec with
+ * {@code matchesJsonSchemaInClasspath} does, so the schema is read and compiled for every response;
+ * {@code cached} reuses the matcher from {@link JsonSchemas}.
+ */
+@State(Scope.Benchmark)
+public class SchemaValidationBenchmark {
+    private static final String BODY = "{\"bookingid\":1,\"booking\":{\"firstname\":\"Sally\",\"lastname\":\"Brown\","
+            + "\"totalprice\":111,\"depositpaid\":true,"
+            + "\"bookingdates\":{\"checkin\":\"2023-11-11\",\"checkout\":\"2023-11-12\"},\"additionalneeds\":\"Breakfast\"}}";
+
+    @Param({"perCall", "cached"})
+    String schema;
+
+    private Matcher<String> cached;
+
+    @Setup
+    public void setUp() {
+        cached = JsonSchemas.matchesSchema("create-booking");
+    }
+
+    @Benchmark
+    public boolean validateCreateBooking() {
+        return schema.equals("cached")
+                ? cached.matches(BODY)
+                : matchesJsonSchemaInClasspath("schemas/create-booking.json").matches(BODY);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.gloomyana.benchmarks;
+
+import io.restassured.specification.RequestSpecification;
+import org.aeonbits.owner.ConfigFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import ru.gloomyana.config.ConnectionPoolConfig;
+import ru.gloomyana.helpers.ApiHelpers;
+import ru.gloomyana.helpers.Http2Transport;
+import ru.gloomyana.helpers.LatencyRecorder;
+import ru.gloomyana.server.EmbeddedBookerServer;
+import ru.gloomyana.specs.RestfulBookerSpec;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.restassured.RestAssured.given;
+import static ru.gloomyana.specs.RestfulBookerSpec.bookingResponseSpec;
+
+/**
+ * The GET /booking/{id} of {@link ApiHelpers#getBooking} from {@value #THREADS} threads against the h2c port of the
+ * embedded server, over REST Assured's pooled HTTP/1.1 connections ({@code http1}) or multiplexed by
+ * {@link Http2Transport} over two connections ({@code http2}). At the end of a trial the connections the server
+ * accepted and the latency percentiles of the measurement iterations are printed next to the JMH score.
+ * <p>
+ * The body is validated but not mapped: Afterburner on the jmh classpath cannot call the Lombok builders.
+ */
+@State(Scope.Benchmark)
+@Threads(TransportBenchmark.THREADS)
+@Fork(jvmArgsAppend = "-Dreporting.mode=failures")
+public class TransportBenchmark {
+    static final int THREADS = 16;
+
+    @Param({"http1", "http2"})
+    String transport;
+
+    private EmbeddedBookerServer server;
+    private RequestSpecification spec;
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private volatile boolean measuring;
+
+    @Setup
+    public void setUp() {
+        server = new EmbeddedBookerServer("admin", "password123", THREADS);
+        Http2Transport http2 = transport.equals("http2")
+                ? new Http2Transport(2, ConfigFactory.create(ConnectionPoolConfig.class, System.getProperties()))
+                : null;
+        spec = RestfulBookerSpec.requestSpec(server.h2c().baseUrl(), http2);
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams iteration) {
+        measuring = iteration.getType() == IterationType.MEASUREMENT;
+    }
+
+    @Benchmark
+    public byte[] getBooking() {
+        long start = System.nanoTime();
+        byte[] booking = given(spec)
+                .when()
+                .get("/booking/" + ThreadLocalRandom.current().nextInt(1, 11))
+                .then()
+                .statusCode(200)
+                .spec(bookingResponseSpec)
+                .extract().asByteArray();
+        if (measuring) {
+            latencies.record(transport + " GET /booking/{id}", System.nanoTime() - start);
+        }
+        return booking;
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%s: %d connections accepted (%d upgraded to HTTP/2) for %d threads%n%s",
+                transport, server.h2c().connections(), server.h2c().http2Connections(), THREADS,
+                LatencyRecorder.summary(latencies.snapshot()));
+        server.close();
+    }
+}
@@ -7,4 +7,10 @@ import org.aeonbits.owner.Config;
 public interface ApiConfig extends Config {
     @Key("baseUrl")
     String baseUrl();
+
+    @Key("transport")
+    String transport();
+
+    @Key("transport.connections")
+    int transportConnections();
 }
@@ -10,4 +10,7 @@ public interface AuthConfig extends Config {
 
     @Key("password")
     String password();
+
+    @Key("tokenTtlSeconds")
+    long tokenTtlSeconds();
 }
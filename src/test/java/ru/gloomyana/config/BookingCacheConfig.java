@@ -0,0 +1,16 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:booking-cache.properties"})
+
+public interface BookingCacheConfig extends Config {
+    @Key("bookingCache.enabled")
+    boolean enabled();
+
+    @Key("bookingCache.maxEntries")
+    int maxEntries();
+
+    @Key("bookingCache.ttlSeconds")
+    long ttlSeconds();
+}
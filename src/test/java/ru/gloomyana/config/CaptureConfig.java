@@ -0,0 +1,31 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:capture.properties"})
+
+public interface CaptureConfig extends Config {
+    @Key("capture.enabled")
+    boolean enabled();
+
+    @Key("capture.file")
+    String file();
+
+    @Key("capture.queueCapacity")
+    int queueCapacity();
+
+    @Key("capture.maxBodyChars")
+    int maxBodyChars();
+
+    @Key("replay.file")
+    String replayFile();
+
+    @Key("replay.baseUrl")
+    String replayBaseUrl();
+
+    @Key("replay.speed")
+    double replaySpeed();
+
+    @Key("replay.maxInFlight")
+    int replayMaxInFlight();
+}
@@ -0,0 +1,13 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:concurrency.properties"})
+
+public interface ConcurrencyConfig extends Config {
+    @Key("concurrency.mode")
+    String mode();
+
+    @Key("concurrency.platformThreads")
+    int platformThreads();
+}
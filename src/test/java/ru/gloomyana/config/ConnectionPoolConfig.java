@@ -0,0 +1,34 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:connection-pool.properties"})
+
+public interface ConnectionPoolConfig extends Config {
+    @Key("pool.enabled")
+    boolean enabled();
+
+    @Key("pool.maxTotal")
+    int maxTotal();
+
+    @Key("pool.maxPerRoute")
+    int maxPerRoute();
+
+    @Key("pool.keepAliveSeconds")
+    long keepAliveSeconds();
+
+    @Key("pool.idleEvictionSeconds")
+    long idleEvictionSeconds();
+
+    @Key("pool.connectTimeoutMillis")
+    int connectTimeoutMillis();
+
+    @Key("pool.readTimeoutMillis")
+    int readTimeoutMillis();
+
+    @Key("pool.asyncMaxInFlight")
+    int asyncMaxInFlight();
+
+    @Key("pool.asyncMaxQueued")
+    int asyncMaxQueued();
+}
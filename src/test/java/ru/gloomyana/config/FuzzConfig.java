@@ -0,0 +1,22 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:fuzz.properties"})
+
+public interface FuzzConfig extends Config {
+    @Key("fuzz.sequences")
+    int sequences();
+
+    @Key("fuzz.maxSteps")
+    int maxSteps();
+
+    @Key("fuzz.workers")
+    int workers();
+
+    @Key("fuzz.seed")
+    long seed();
+
+    @Key("fuzz.maxShrinkRuns")
+    int maxShrinkRuns();
+}
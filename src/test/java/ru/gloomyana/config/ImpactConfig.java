@@ -0,0 +1,16 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:impact.properties"})
+
+public interface ImpactConfig extends Config {
+    @Key("impact.changed")
+    String changed();
+
+    @Key("impact.record")
+    boolean record();
+
+    @Key("impact.file")
+    String file();
+}
@@ -0,0 +1,31 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:load.properties"})
+
+public interface LoadConfig extends Config {
+    @Key("load.workers")
+    int workers();
+
+    @Key("load.durationSeconds")
+    long durationSeconds();
+
+    @Key("load.requests")
+    long requests();
+
+    @Key("load.mix")
+    String mix();
+
+    @Key("load.dataPoolSize")
+    int dataPoolSize();
+
+    @Key("load.seed")
+    long seed();
+
+    @Key("load.arrivalRate")
+    double arrivalRate();
+
+    @Key("load.maxBacklog")
+    int maxBacklog();
+}
@@ -0,0 +1,13 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:metrics.properties"})
+
+public interface MetricsConfig extends Config {
+    @Key("metrics.enabled")
+    boolean enabled();
+
+    @Key("metrics.outputDir")
+    String outputDir();
+}
@@ -0,0 +1,37 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:rate-limit.properties"})
+
+public interface RateLimitConfig extends Config {
+    @Key("rateLimit.enabled")
+    boolean enabled();
+
+    @Key("rateLimit.initialRate")
+    double initialRate();
+
+    @Key("rateLimit.minRate")
+    double minRate();
+
+    @Key("rateLimit.maxRate")
+    double maxRate();
+
+    @Key("rateLimit.burst")
+    int burst();
+
+    @Key("rateLimit.additiveIncrease")
+    double additiveIncrease();
+
+    @Key("rateLimit.multiplicativeDecrease")
+    double multiplicativeDecrease();
+
+    @Key("rateLimit.maxRetries")
+    int maxRetries();
+
+    @Key("rateLimit.baseBackoffMillis")
+    long baseBackoffMillis();
+
+    @Key("rateLimit.maxBackoffMillis")
+    long maxBackoffMillis();
+}
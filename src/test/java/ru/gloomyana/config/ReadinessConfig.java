@@ -0,0 +1,22 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:readiness.properties"})
+
+public interface ReadinessConfig extends Config {
+    @Key("readiness.enabled")
+    boolean enabled();
+
+    @Key("readiness.timeoutMillis")
+    long timeoutMillis();
+
+    @Key("readiness.attempts")
+    int attempts();
+
+    @Key("readiness.backoffMillis")
+    long backoffMillis();
+
+    @Key("readiness.ttlSeconds")
+    long ttlSeconds();
+}
@@ -0,0 +1,22 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:reporting.properties"})
+
+public interface ReportingConfig extends Config {
+    @Key("reporting.mode")
+    String mode();
+
+    @Key("reporting.sampleRate")
+    double sampleRate();
+
+    @Key("reporting.maxBodyChars")
+    int maxBodyChars();
+
+    @Key("reporting.maxBufferedPerTest")
+    int maxBufferedPerTest();
+
+    @Key("reporting.queueCapacity")
+    int queueCapacity();
+}
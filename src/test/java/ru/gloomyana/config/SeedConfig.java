@@ -0,0 +1,25 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:seed.properties"})
+
+public interface SeedConfig extends Config {
+    @Key("seed.size")
+    int size();
+
+    @Key("seed.claimable")
+    int claimable();
+
+    @Key("seed.concurrency")
+    int concurrency();
+
+    @Key("seed.retries")
+    int retries();
+
+    @Key("seed.retryBackoffMillis")
+    long retryBackoffMillis();
+
+    @Key("seed.randomSeed")
+    long randomSeed();
+}
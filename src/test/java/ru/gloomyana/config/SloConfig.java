@@ -0,0 +1,24 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Accessible;
+import org.aeonbits.owner.Config;
+
+// Per-endpoint overrides use the endpoint with '_' for the space: slo.maxMillis.GET_/booking/{id}=2000
+@Config.Sources({"classpath:slo.properties"})
+
+public interface SloConfig extends Config, Accessible {
+    @Key("slo.enabled")
+    boolean enabled();
+
+    @Key("slo.maxMillis")
+    long maxMillis();
+
+    @Key("slo.percentile")
+    double percentile();
+
+    @Key("slo.percentileMillis")
+    long percentileMillis();
+
+    @Key("slo.minSamples")
+    int minSamples();
+}
@@ -0,0 +1,22 @@
+package ru.gloomyana.config;
+
+import org.aeonbits.owner.Config;
+
+@Config.Sources({"classpath:warmup.properties"})
+
+public interface WarmUpConfig extends Config {
+    @Key("warmup.enabled")
+    boolean enabled();
+
+    @Key("warmup.window")
+    int window();
+
+    @Key("warmup.tolerance")
+    double tolerance();
+
+    @Key("warmup.maxRounds")
+    int maxRounds();
+
+    @Key("warmup.maxSeconds")
+    long maxSeconds();
+}
@@ -0,0 +1,66 @@
+package ru.gloomyana.consistency;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class ContentionReport {
+    private static final int SHOWN_ANOMALIES = 20;
+
+    private final List<Operation> history;
+    private final List<String> anomalies;
+    private final Duration elapsed;
+    private final Map<Operation.Type, Long> operations = new EnumMap<>(Operation.Type.class);
+    private final Map<Operation.Type, Long> errors = new EnumMap<>(Operation.Type.class);
+
+    ContentionReport(List<Operation> history, List<String> anomalies, long elapsedNanos) {
+        this.history = List.copyOf(history);
+        this.anomalies = List.copyOf(anomalies);
+        this.elapsed = Duration.ofNanos(elapsedNanos);
+        for (Operation operation : history) {
+            operations.merge(operation.getType(), 1L, Long::sum);
+            if (operation.failed()) {
+                errors.merge(operation.getType(), 1L, Long::sum);
+            }
+        }
+    }
+
+    public List<Operation> history() {
+        return history;
+    }
+
+    public List<String> anomalies() {
+        return anomalies;
+    }
+
+    public long operations(Operation.Type type) {
+        return operations.getOrDefault(type, 0L);
+    }
+
+    public long errors(Operation.Type type) {
+        return errors.getOrDefault(type, 0L);
+    }
+
+    public long totalErrors() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // contended calls only; the setup create and the final read run outside the clients
+    public double throughput() {
+        long contended = history.stream().filter(operation -> operation.getClient() >= 0).count();
+        return contended / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format("%d calls on one booking in %d ms, %.1f calls/s%n",
+                history.size(), elapsed.toMillis(), throughput()));
+        for (Operation.Type type : Operation.Type.values()) {
+            report.append(String.format("  %-6s %6d calls %4d errors%n", type, operations(type), errors(type)));
+        }
+        report.append(String.format("%d anomalies%n", anomalies.size()));
+        anomalies.stream().limit(SHOWN_ANOMALIES).forEach(anomaly -> report.append("  ").append(anomaly).append('\n'));
+        return report.toString();
+    }
+}
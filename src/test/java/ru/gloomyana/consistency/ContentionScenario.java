@@ -0,0 +1,95 @@
+package ru.gloomyana.consistency;
+
+import io.restassured.specification.RequestSpecification;
+import ru.gloomyana.helpers.ConcurrentClients;
+import ru.gloomyana.models.BookingRequestModel;
+import ru.gloomyana.models.BookingResponseModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static ru.gloomyana.helpers.ApiHelpers.*;
+
+/**
+ * Many clients interleave PUT, PATCH and GET on a single booking, every call is recorded with its
+ * invocation and completion time, and the history is checked with {@link RegisterChecker} for both
+ * fields the writes touch.
+ */
+public class ContentionScenario {
+    private final RequestSpecification spec;
+    private final String token;
+    private final BookingRequestModel booking;
+    private final int clients, operationsPerClient;
+    private final AtomicInteger values = new AtomicInteger();
+
+    public ContentionScenario(RequestSpecification spec, String token, BookingRequestModel booking,
+                              int clients, int operationsPerClient) {
+        this.spec = spec;
+        this.token = token;
+        this.booking = booking;
+        this.clients = clients;
+        this.operationsPerClient = operationsPerClient;
+    }
+
+    public ContentionReport run() {
+        Queue<Operation> history = new ConcurrentLinkedQueue<>();
+        BookingRequestModel initial = booking.toBuilder().totalPrice(0).additionalNeeds("create").build();
+        long createdAt = System.nanoTime();
+        int id = createBooking(spec, initial, token).getBookingId();
+        history.add(new Operation(-1, Operation.Type.CREATE, createdAt, System.nanoTime(),
+                0, "create", 0, "create"));
+
+        long start = System.nanoTime();
+        ConcurrentClients.fromConfig().run(clients, client -> {
+            for (int i = 0; i < operationsPerClient; i++) {
+                history.add(next(client, id));
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        history.add(record(-1, Operation.Type.GET, null, null, () -> getBooking(spec, id)));
+
+        List<Operation> operations = new ArrayList<>(history);
+        List<String> anomalies = new ArrayList<>();
+        anomalies.addAll(new RegisterChecker<>("totalprice", Operation::getWrotePrice, Operation::getReadPrice)
+                .check(operations));
+        anomalies.addAll(new RegisterChecker<>("additionalneeds", Operation::getWroteNeeds, Operation::getReadNeeds)
+                .check(operations));
+        return new ContentionReport(operations, anomalies, elapsed);
+    }
+
+    private Operation next(int client, int id) {
+        int roll = ThreadLocalRandom.current().nextInt(10);
+        int value = values.incrementAndGet();
+        if (roll < 4) {
+            BookingRequestModel update = booking.toBuilder().totalPrice(value).additionalNeeds("put-" + value).build();
+            return record(client, Operation.Type.PUT, value, update.getAdditionalNeeds(),
+                    () -> updateBooking(spec, update, token, id));
+        }
+        if (roll < 7) {
+            String needs = "patch-" + value;
+            return record(client, Operation.Type.PATCH, null, needs,
+                    () -> partialUpdateBooking(spec, Map.of("additionalneeds", needs), token, id));
+        }
+        return record(client, Operation.Type.GET, null, null, () -> getBooking(spec, id));
+    }
+
+    private static Operation record(int client, Operation.Type type, Integer price, String needs,
+                                    Supplier<BookingResponseModel> call) {
+        long invokedAt = System.nanoTime();
+        BookingResponseModel response = null;
+        try {
+            response = call.get();
+        } catch (RuntimeException | AssertionError ignored) {
+            // a failed write may or may not have been applied; the checker treats it as open-ended
+        }
+        return new Operation(client, type, invokedAt, System.nanoTime(), price, needs,
+                response == null ? null : response.getTotalPrice(),
+                response == null ? null : response.getAdditionalNeeds());
+    }
+}
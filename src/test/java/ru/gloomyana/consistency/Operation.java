@@ -0,0 +1,31 @@
+package ru.gloomyana.consistency;
+
+import lombok.Value;
+
+/**
+ * One call against the contended booking. {@code totalprice} is written only by PUT and
+ * {@code additionalneeds} by PUT and PATCH, always with values unique to the call, so every observed value
+ * identifies the write that produced it. Observed values are null when the call failed.
+ */
+@Value
+public class Operation {
+    public enum Type {CREATE, PUT, PATCH, GET}
+
+    int client;
+    Type type;
+    long invokedAt, completedAt;
+    Integer wrotePrice;
+    String wroteNeeds;
+    Integer readPrice;
+    String readNeeds;
+
+    public boolean failed() {
+        return readPrice == null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s by client %d [%d..%d us] wrote(%s, %s) read(%s, %s)", type, client,
+                invokedAt / 1000, completedAt / 1000, wrotePrice, wroteNeeds, readPrice, readNeeds);
+    }
+}
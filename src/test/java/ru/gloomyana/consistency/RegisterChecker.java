@@ -0,0 +1,120 @@
+package ru.gloomyana.consistency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Checks one field of the booking as a read/write register over a recorded history. Every write stores a
+ * unique value, so each read maps to exactly one write and the history can be checked in O(n log n)
+ * instead of searching all interleavings. A read is flagged when:
+ * <ul>
+ *     <li>its value was never written, or the write started only after the read completed;</li>
+ *     <li>it is stale: another write started after its write completed and itself completed before the read
+ *     started, so last-writer-wins had already replaced the value (a lost update when the read is the
+ *     response of a later write);</li>
+ *     <li>it goes back in time: an earlier, non-overlapping read saw a write that started after this read's
+ *     write had completed.</li>
+ * </ul>
+ * These are the anomalies a linearizable register can never show; failed calls count as writes that may
+ * have happened at any point after they were sent.
+ */
+public class RegisterChecker<T> {
+    private final String register;
+    private final Function<Operation, T> written, observed;
+
+    public RegisterChecker(String register, Function<Operation, T> written, Function<Operation, T> observed) {
+        this.register = register;
+        this.written = written;
+        this.observed = observed;
+    }
+
+    public List<String> check(List<Operation> history) {
+        List<String> anomalies = new ArrayList<>();
+        Map<T, Operation> writes = new HashMap<>();
+        for (Operation operation : history) {
+            T value = written.apply(operation);
+            if (value != null && writes.put(value, operation) != null) {
+                throw new IllegalArgumentException(register + " value " + value + " was written twice");
+            }
+        }
+
+        // writes by completion time with the latest start among all writes completed so far
+        Operation[] byCompletion = writes.values().stream()
+                .sorted(Comparator.comparingLong(RegisterChecker::completedAt))
+                .toArray(Operation[]::new);
+        long[] writeCompletions = Arrays.stream(byCompletion).mapToLong(RegisterChecker::completedAt).toArray();
+        Operation[] latestStartedWrite = new Operation[byCompletion.length];
+        for (int i = 0; i < byCompletion.length; i++) {
+            latestStartedWrite[i] = i > 0 && latestStartedWrite[i - 1].getInvokedAt() >= byCompletion[i].getInvokedAt()
+                    ? latestStartedWrite[i - 1] : byCompletion[i];
+        }
+
+        List<Operation> reads = new ArrayList<>();
+        for (Operation read : history) {
+            T value = observed.apply(read);
+            if (value == null) {
+                continue;
+            }
+            Operation write = writes.get(value);
+            if (write == null) {
+                anomalies.add(String.format("%s: %s read %s, which was never written", register, read, value));
+            } else if (write.getInvokedAt() > read.getCompletedAt()) {
+                anomalies.add(String.format("%s: %s read %s before %s started", register, read, value, write));
+            } else {
+                int before = countBefore(writeCompletions, read.getInvokedAt());
+                Operation newer = before == 0 ? null : latestStartedWrite[before - 1];
+                if (newer != null && newer.getInvokedAt() > completedAt(write)) {
+                    anomalies.add(String.format("%s: %s read stale %s, already overwritten by %s",
+                            register, read, value, newer));
+                }
+                reads.add(read);
+            }
+        }
+
+        // reads by completion time with the write that started latest among all reads completed so far
+        reads.sort(Comparator.comparingLong(Operation::getCompletedAt));
+        long[] readCompletions = reads.stream().mapToLong(Operation::getCompletedAt).toArray();
+        Operation[] latestObserved = new Operation[reads.size()];
+        for (int i = 0; i < reads.size(); i++) {
+            Operation write = writes.get(observed.apply(reads.get(i)));
+            latestObserved[i] = i > 0 && writes.get(observed.apply(latestObserved[i - 1])).getInvokedAt()
+                    >= write.getInvokedAt() ? latestObserved[i - 1] : reads.get(i);
+        }
+        for (Operation read : reads) {
+            int before = countBefore(readCompletions, read.getInvokedAt());
+            if (before == 0) {
+                continue;
+            }
+            Operation earlier = latestObserved[before - 1];
+            Operation earlierWrite = writes.get(observed.apply(earlier));
+            if (earlierWrite.getInvokedAt() > completedAt(writes.get(observed.apply(read)))) {
+                anomalies.add(String.format("%s: %s went back to %s after %s had read %s",
+                        register, read, observed.apply(read), earlier, observed.apply(earlier)));
+            }
+        }
+        return anomalies;
+    }
+
+    private static long completedAt(Operation write) {
+        return write.failed() ? Long.MAX_VALUE : write.getCompletedAt();
+    }
+
+    // number of entries strictly less than the given time
+    private static int countBefore(long[] sorted, long time) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.gloomyana.data;
+
+import ru.gloomyana.models.BookingRequestModel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking payloads generated up front from a seed, so Faker stays off the request path.
+ * {@link #next()} is a single atomic increment and hands out the shared instance without copying;
+ * callers that need to change a field take {@code toBuilder()} first. The same seed and size always
+ * produce the same sequence, and {@link #rewind()} replays it from the start.
+ */
+public class BookingDataPool {
+    private final long seed;
+    private final BookingRequestModel[] models;
+    private final AtomicLong cursor = new AtomicLong();
+
+    private BookingDataPool(long seed, BookingRequestModel[] models) {
+        this.seed = seed;
+        this.models = models;
+    }
+
+    public static BookingDataPool generate(long seed, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Booking data pool size must be positive, got " + size);
+        }
+        TestData testData = new TestData(seed);
+        BookingRequestModel[] models = new BookingRequestModel[size];
+        for (int i = 0; i < size; i++) {
+            models[i] = testData.createBookingRequestModel();
+        }
+        return new BookingDataPool(seed, models);
+    }
+
+    public static CompletableFuture<BookingDataPool> generateInBackground(long seed, int size, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> generate(seed, size), executor);
+    }
+
+    public BookingRequestModel next() {
+        return models[(int) Long.remainderUnsigned(cursor.getAndIncrement(), models.length)];
+    }
+
+    public BookingRequestModel get(int index) {
+        return models[index];
+    }
+
+    public void rewind() {
+        cursor.set(0);
+    }
+
+    public int size() {
+        return models.length;
+    }
+
+    public long seed() {
+        return seed;
+    }
+}
@@ -0,0 +1,242 @@
+package ru.gloomyana.data;
+
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.AuthConfig;
+import ru.gloomyana.config.ConnectionPoolConfig;
+import ru.gloomyana.config.SeedConfig;
+import ru.gloomyana.helpers.AsyncBookingClient;
+import ru.gloomyana.helpers.AuthTokenProvider;
+import ru.gloomyana.helpers.MetricsFiles;
+import ru.gloomyana.models.BookingRequestModel;
+import ru.gloomyana.models.CreateBookingResponseModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+import ru.gloomyana.specs.RestfulBookerSpec;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bookings created once per JVM by {@link SeedingStage} before the test classes start, or else by the first test
+ * that asks for them, so tests look up existing data instead of creating it. Creation is pipelined through
+ * {@link AsyncBookingClient} with at most {@code seed.concurrency} requests in flight; connection errors, 429 and
+ * 5xx are retried with exponential backoff. The defaults are kept small for a shared remote target; against the
+ * embedded server more bookings are seeded, faster. {@link SeedingStage} deletes them again when the run ends.
+ * <p>
+ * The last {@code seed.claimable} bookings are reserved for tests that change or delete a booking:
+ * {@link #claim()} hands each of them out once. Lookups only see the rest, which nobody modifies.
+ */
+public class SeededBookings {
+    private static final SeedConfig CONFIG = ConfigFactory.create(SeedConfig.class, System.getProperties(),
+            EmbeddedBookerServer.selected()
+                    ? Map.of("seed.size", "200", "seed.claimable", "50", "seed.concurrency", "64")
+                    : Map.of());
+    private static volatile SeededBookings shared;
+
+    private final int[] ids;
+    private final Map<Integer, BookingRequestModel> bookings;
+    private final int readOnly;
+    private final AtomicInteger claimed;
+    private final Map<String, int[]> byFirstname, byLastname;
+    private final Duration elapsed;
+    private final long retries;
+
+    private SeededBookings(int[] ids, BookingRequestModel[] models, int claimable, Duration elapsed, long retries) {
+        this.ids = ids;
+        this.readOnly = Math.max(0, ids.length - claimable);
+        this.claimed = new AtomicInteger(readOnly);
+        this.elapsed = elapsed;
+        this.retries = retries;
+        this.bookings = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            bookings.put(ids[i], models[i]);
+        }
+        this.byFirstname = index(models, BookingRequestModel::getFirstname);
+        this.byLastname = index(models, BookingRequestModel::getLastname);
+    }
+
+    public static SeededBookings shared() {
+        if (shared == null) {
+            synchronized (SeededBookings.class) {
+                if (shared == null) {
+                    shared = seed(client(), token(), BookingDataPool.generate(CONFIG.randomSeed(), CONFIG.size()),
+                            CONFIG.claimable(), CONFIG.retries(), Duration.ofMillis(CONFIG.retryBackoffMillis()));
+                    MetricsFiles.write("seeding.txt", shared);
+                }
+            }
+        }
+        return shared;
+    }
+
+    // nothing to do when no test asked for the bookings
+    public static synchronized void deleteShared() {
+        if (shared != null) {
+            long deleted = shared.delete(client(), token());
+            MetricsFiles.append("seeding.txt", "Deleted " + deleted + " of " + shared.size() + " seeded bookings");
+        }
+    }
+
+    private static AsyncBookingClient client() {
+        ConnectionPoolConfig poolConfig = ConfigFactory.create(ConnectionPoolConfig.class, System.getProperties());
+        return AsyncBookingClient.create(RestfulBookerSpec.baseUrl(), poolConfig, CONFIG.concurrency());
+    }
+
+    private static String token() {
+        return AuthTokenProvider.forConfig(ConfigFactory.create(AuthConfig.class, System.getProperties())).token();
+    }
+
+    public static SeededBookings seed(AsyncBookingClient client, String token, BookingDataPool data,
+                                      int claimable, int retries, Duration backoff) {
+        if (data.size() <= claimable) {
+            throw new IllegalArgumentException("seed.size (" + data.size() + ") must be larger than seed.claimable ("
+                    + claimable + "), or no booking is left to look up");
+        }
+        long start = System.nanoTime();
+        AtomicLong retried = new AtomicLong();
+        List<CompletableFuture<Integer>> created = new ArrayList<>(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            created.add(create(client, token, data.get(i), 0, retries, backoff, retried));
+        }
+        CompletableFuture.allOf(created.toArray(new CompletableFuture[0])).join();
+
+        int[] ids = new int[data.size()];
+        BookingRequestModel[] models = new BookingRequestModel[data.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = created.get(i).join();
+            models[i] = data.get(i);
+        }
+        return new SeededBookings(ids, models, claimable, Duration.ofNanos(System.nanoTime() - start), retried.get());
+    }
+
+    private static CompletableFuture<Integer> create(AsyncBookingClient client, String token,
+                                                     BookingRequestModel booking, int attempt, int retries,
+                                                     Duration backoff, AtomicLong retried) {
+        return client.createBooking(booking, token)
+                .thenApply(CreateBookingResponseModel::getBookingId)
+                .handle((id, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(id);
+                    }
+                    if (attempt >= retries || !isTransient(error)) {
+                        return CompletableFuture.<Integer>failedFuture(error);
+                    }
+                    retried.incrementAndGet();
+                    long delay = (backoff.toMillis() << attempt)
+                            + ThreadLocalRandom.current().nextLong(backoff.toMillis() + 1);
+                    return CompletableFuture.supplyAsync(() -> attempt + 1,
+                                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                            .thenCompose(next -> create(client, token, booking, next, retries, backoff, retried));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    // every seeded booking, claimed ones included; a booking a test already deleted answers 404 and is skipped
+    public long delete(AsyncBookingClient client, String token) {
+        List<CompletableFuture<Integer>> statuses = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            statuses.add(client.deleteBooking(token, id).exceptionally(error -> -1));
+        }
+        return statuses.stream().map(CompletableFuture::join).filter(status -> status == 201).count();
+    }
+
+    static boolean isTransient(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof AsyncBookingClient.UnexpectedStatusError) {
+            int status = ((AsyncBookingClient.UnexpectedStatusError) cause).statusCode();
+            return status == 429 || status >= 500;
+        }
+        return cause instanceof IOException;
+    }
+
+    private static Map<String, int[]> index(BookingRequestModel[] models, Function<BookingRequestModel, String> key) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < models.length; i++) {
+            positions.computeIfAbsent(key.apply(models[i]), name -> new ArrayList<>()).add(i);
+        }
+        Map<String, int[]> index = new HashMap<>(positions.size() * 2);
+        positions.forEach((name, list) -> index.put(name, list.stream().mapToInt(Integer::intValue).toArray()));
+        return index;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public BookingRequestModel booking(int id) {
+        return bookings.get(id);
+    }
+
+    // any booking that no test modifies
+    public int anyId() {
+        return ids[ThreadLocalRandom.current().nextInt(readOnly)];
+    }
+
+    public BookingRequestModel anyBooking() {
+        return booking(anyId());
+    }
+
+    // a booking this caller may update or delete; never returned twice or by the lookups
+    public int claim() {
+        int index = claimed.getAndIncrement();
+        if (index >= ids.length) {
+            throw new IllegalStateException("All " + (ids.length - readOnly) + " claimable seeded bookings are used, "
+                    + "raise seed.claimable");
+        }
+        return ids[index];
+    }
+
+    public int[] idsByFirstname(String firstname) {
+        return lookup(byFirstname, firstname);
+    }
+
+    public int[] idsByLastname(String lastname) {
+        return lookup(byLastname, lastname);
+    }
+
+    public List<Integer> find(Predicate<BookingRequestModel> filter) {
+        List<Integer> found = new ArrayList<>();
+        for (int i = 0; i < readOnly; i++) {
+            if (filter.test(bookings.get(ids[i]))) {
+                found.add(ids[i]);
+            }
+        }
+        return found;
+    }
+
+    private int[] lookup(Map<String, int[]> index, String key) {
+        int[] positions = index.get(key);
+        if (positions == null) {
+            return new int[0];
+        }
+        return Arrays.stream(positions)
+                .filter(position -> position < readOnly)
+                .map(position -> ids[position])
+                .toArray();
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public long retries() {
+        return retries;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Seeded %d bookings in %d ms (%d retries, %d claimable)",
+                ids.length, elapsed.toMillis(), retries, ids.length - readOnly);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.gloomyana.data;
+
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import ru.gloomyana.helpers.ReadinessProbe;
+import ru.gloomyana.specs.RestfulBookerSpec;
+
+/**
+ * Seeds {@link SeededBookings} as a stage of its own, before the first test class starts, when the test plan
+ * holds "api" tests. Registered through META-INF/services; a target that is not ready is left to
+ * {@link ru.gloomyana.helpers.ReadinessGate} to report, and without this stage the first test that asks seeds.
+ * When the plan has finished the seeded bookings are deleted, however they were seeded.
+ */
+public class SeedingStage implements TestExecutionListener {
+    private static final TestTag API = TestTag.create("api");
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        boolean api = testPlan.getRoots().stream()
+                .flatMap(root -> testPlan.getDescendants(root).stream())
+                .anyMatch(test -> test.getTags().contains(API));
+        if (api && ReadinessProbe.shared().check(RestfulBookerSpec.baseUrl()).ready()) {
+            SeededBookings.shared();
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        SeededBookings.deleteShared();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.gloomyana.data;
+
+import com.github.javafaker.Faker;
+import ru.gloomyana.models.BookingDatesModel;
+import ru.gloomyana.models.BookingRequestModel;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+public class TestData {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    final Faker faker;
+
+    final String[] needs = new String[]{"Breakfast", "Pets are allowed", "Twin beds", "Free parking", "None"};
+
+    public TestData() {
+        faker = new Faker();
+    }
+
+    public TestData(long seed) {
+        faker = new Faker(new Random(seed));
+    }
+
+    public LocalDate generateRandomDate() {
+        int year = faker.number().numberBetween(2020, 2050);
+        int month = faker.number().numberBetween(1, 12);
+        int day = faker.number().numberBetween(1, 28);
+        return LocalDate.of(year, month, day);
+    }
+
+    public BookingDatesModel getDates() {
+        LocalDate checkInDate = generateRandomDate();
+        LocalDate checkOutDate = checkInDate.plusDays(faker.number().numberBetween(1, 30));
+        return new BookingDatesModel(checkInDate.format(DATE_FORMAT), checkOutDate.format(DATE_FORMAT));
+    }
+
+    public String getRandomItemFromArray(String[] items) {
+        return faker.options().option(items);
+    }
+
+    public BookingRequestModel createBookingRequestModel() {
+        return BookingRequestModel.builder()
+                .firstname(faker.name().firstName())
+                .lastname(faker.name().lastName())
+                .totalPrice(faker.number().numberBetween(100, 1000))
+                .depositPaid(faker.bool().bool())
+                .bookingDatesModel(getDates())
+                .additionalNeeds(getRandomItemFromArray(needs))
+                .build();
+    }
+}
@@ -0,0 +1,341 @@
+package ru.gloomyana.fuzz;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.specification.RequestSpecification;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.AuthConfig;
+import ru.gloomyana.config.FuzzConfig;
+import ru.gloomyana.helpers.ConcurrentClients;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.models.BookingDatesModel;
+import ru.gloomyana.models.BookingRequestModel;
+import ru.gloomyana.models.CreateBookingResponseModel;
+import ru.gloomyana.specs.RestfulBookerSpec;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static ru.gloomyana.helpers.ApiHelpers.*;
+
+/**
+ * Model-based fuzzing of the booking lifecycle. Each sequence is a random run of create, get, update,
+ * partial-update and delete calls on one booking of its own, some with mutated bodies (empty names, negative
+ * prices, inverted or missing dates) or a forged token, checked step by step against {@link BookingModel}.
+ * Sequences share no bookings, so {@code workers} of them run in parallel.
+ * <p>
+ * Steps the model expects to succeed go through {@link ru.gloomyana.helpers.ApiHelpers} and its response specs;
+ * the rest only compare the status. The first failing sequence stops the run and is shrunk by removing ever
+ * smaller runs of steps, then by undoing mutations, as long as the server and the model still disagree.
+ */
+public class BookingFuzzer {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // far above any id the service hands out, so steps before the first create hit a missing booking
+    private static final int NEVER_CREATED = 999_999_999;
+    private static final String FORGED_TOKEN = "forged";
+    private static final String[] NAMES = {"Sally", "Jim", "Mark", "Mary", "Susan", "Eric", "John", "Ann"};
+    private static final String[] NEEDS = {"Breakfast", "Pets are allowed", "Twin beds", "Free parking", "None"};
+    private static final String[] BOOKING_MUTATIONS = {"empty firstname", "empty lastname", "negative totalprice",
+            "inverted dates", "missing firstname", "missing bookingdates"};
+    private static final String[] PATCH_MUTATIONS = {"empty firstname", "negative totalprice", "inverted dates"};
+
+    private final RequestSpecification spec;
+    private final String token;
+    private final Predicate<BookingRequestModel> accepted;
+    private final int maxSteps, maxShrinkRuns;
+
+    public BookingFuzzer(RequestSpecification spec, String token, Predicate<BookingRequestModel> accepted,
+                         int maxSteps, int maxShrinkRuns) {
+        this.spec = spec;
+        this.token = token;
+        this.accepted = accepted;
+        this.maxSteps = maxSteps;
+        this.maxShrinkRuns = maxShrinkRuns;
+    }
+
+    public static void main(String[] args) {
+        AuthConfig authConfig = ConfigFactory.create(AuthConfig.class, System.getProperties());
+        FuzzConfig config = ConfigFactory.create(FuzzConfig.class, System.getProperties());
+        RequestSpecification spec = RestfulBookerSpec.requestSpec(RestfulBookerSpec.baseUrl());
+        String token = createToken(spec, new AuthRequestModel(authConfig.username(), authConfig.password())).getToken();
+        BookingFuzzer fuzzer = new BookingFuzzer(spec, token, BookingModel::complete,
+                config.maxSteps(), config.maxShrinkRuns());
+        FuzzReport report = fuzzer.run(config.seed(), config.sequences(), config.workers());
+        System.out.print(report);
+        System.exit(report.failures().isEmpty() ? 0 : 1);
+    }
+
+    // sequence i is generated from seed + i, so a reported seed reproduces its sequence on its own
+    public FuzzReport run(long seed, int sequences, int workers) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        LongAdder run = new LongAdder(), steps = new LongAdder();
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        Queue<FuzzFailure> failures = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        ConcurrentClients.fromConfig().run(workers, worker -> {
+            int index;
+            while (!failed.get() && (index = next.getAndIncrement()) < sequences) {
+                List<FuzzStep> sequence = generate(new Random(seed + index));
+                String failure = execute(sequence, steps, outcomes);
+                run.increment();
+                if (failure != null) {
+                    failed.set(true);
+                    failures.add(shrink(seed + index, sequence, failure));
+                }
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return new FuzzReport(run.sum(), steps.sum(), counts, new ArrayList<>(failures), elapsed);
+    }
+
+    public List<FuzzStep> generate(Random random) {
+        int length = 1 + random.nextInt(maxSteps);
+        List<FuzzStep> sequence = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            // most sequences start with a create so the rest of them exercise an existing booking
+            FuzzStep.Type type = i == 0 && random.nextInt(10) > 0 ? FuzzStep.Type.CREATE : nextType(random);
+            sequence.add(nextStep(type, random));
+        }
+        return sequence;
+    }
+
+    private static FuzzStep.Type nextType(Random random) {
+        int roll = random.nextInt(100);
+        return roll < 15 ? FuzzStep.Type.CREATE
+                : roll < 40 ? FuzzStep.Type.GET
+                : roll < 62 ? FuzzStep.Type.PUT
+                : roll < 85 ? FuzzStep.Type.PATCH
+                : FuzzStep.Type.DELETE;
+    }
+
+    private static FuzzStep nextStep(FuzzStep.Type type, Random random) {
+        boolean forged = type != FuzzStep.Type.CREATE && type != FuzzStep.Type.GET && random.nextInt(10) == 0;
+        FuzzStep.FuzzStepBuilder step = FuzzStep.builder().type(type).forgedToken(forged);
+        if (type == FuzzStep.Type.CREATE || type == FuzzStep.Type.PUT) {
+            step.booking(booking(random));
+        } else if (type == FuzzStep.Type.PATCH) {
+            step.patch(patch(random));
+        } else {
+            return step.build();
+        }
+        FuzzStep plain = step.build();
+        if (random.nextInt(10) >= 3) {
+            return plain;
+        }
+        if (type == FuzzStep.Type.PATCH) {
+            String mutation = PATCH_MUTATIONS[random.nextInt(PATCH_MUTATIONS.length)];
+            return plain.toBuilder().mutation(mutation).patch(mutatedPatch(mutation, random)).plain(plain).build();
+        }
+        String mutation = BOOKING_MUTATIONS[random.nextInt(BOOKING_MUTATIONS.length)];
+        return plain.toBuilder().mutation(mutation).booking(mutate(plain.getBooking(), mutation)).plain(plain).build();
+    }
+
+    private static BookingRequestModel booking(Random random) {
+        return BookingRequestModel.builder()
+                .firstname(NAMES[random.nextInt(NAMES.length)])
+                .lastname(NAMES[random.nextInt(NAMES.length)] + "son")
+                .totalPrice(100 + random.nextInt(900))
+                .depositPaid(random.nextBoolean())
+                .bookingDatesModel(dates(random))
+                .additionalNeeds(NEEDS[random.nextInt(NEEDS.length)])
+                .build();
+    }
+
+    private static BookingDatesModel dates(Random random) {
+        LocalDate checkin = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(3650));
+        return new BookingDatesModel(checkin.toString(), checkin.plusDays(1 + random.nextInt(30)).toString());
+    }
+
+    private static Map<String, Object> patch(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return Map.of("firstname", NAMES[random.nextInt(NAMES.length)]);
+            case 1:
+                return Map.of("totalprice", 100 + random.nextInt(900));
+            case 2:
+                return Map.of("depositpaid", random.nextBoolean());
+            case 3:
+                return Map.of("bookingdates", dates(random));
+            default:
+                return Map.of("additionalneeds", NEEDS[random.nextInt(NEEDS.length)]);
+        }
+    }
+
+    private static Map<String, Object> mutatedPatch(String mutation, Random random) {
+        switch (mutation) {
+            case "empty firstname":
+                return Map.of("firstname", "");
+            case "negative totalprice":
+                return Map.of("totalprice", -1 - random.nextInt(1000));
+            default:
+                return Map.of("bookingdates", inverted(dates(random)));
+        }
+    }
+
+    private static BookingRequestModel mutate(BookingRequestModel booking, String mutation) {
+        switch (mutation) {
+            case "empty firstname":
+                return booking.toBuilder().firstname("").build();
+            case "empty lastname":
+                return booking.toBuilder().lastname("").build();
+            case "negative totalprice":
+                return booking.toBuilder().totalPrice(-booking.getTotalPrice()).build();
+            case "inverted dates":
+                return booking.toBuilder().bookingDatesModel(inverted(booking.getBookingDatesModel())).build();
+            case "missing firstname":
+                return booking.toBuilder().firstname(null).build();
+            default:
+                return booking.toBuilder().bookingDatesModel(null).build();
+        }
+    }
+
+    private static BookingDatesModel inverted(BookingDatesModel dates) {
+        return new BookingDatesModel(dates.getCheckout(), dates.getCheckin());
+    }
+
+    // the first disagreement between the server and the model, or null when the whole sequence agreed
+    String execute(List<FuzzStep> sequence, LongAdder steps, Map<String, LongAdder> outcomes) {
+        BookingModel model = new BookingModel(accepted);
+        Set<Integer> live = new HashSet<>();
+        int id = NEVER_CREATED;
+        try {
+            for (int i = 0; i < sequence.size(); i++) {
+                FuzzStep step = sequence.get(i);
+                BookingModel.Expectation expected = model.apply(step);
+                steps.increment();
+                outcomes.computeIfAbsent(step.getType() + " " + expected.getStatus(), key -> new LongAdder())
+                        .increment();
+                String prefix = String.format("step %d, %s: expected %d", i + 1, step, expected.getStatus());
+
+                if (!expected.succeeds()) {
+                    int status = status(step, id);
+                    if (status != expected.getStatus()) {
+                        return prefix + " but was " + status;
+                    }
+                    continue;
+                }
+                Object actual;
+                try {
+                    switch (step.getType()) {
+                        case CREATE:
+                            CreateBookingResponseModel created = createBooking(spec, step.getBooking(), token);
+                            id = created.getBookingId();
+                            live.add(id);
+                            actual = created.getBookingRequestModel();
+                            break;
+                        case GET:
+                            actual = getBooking(spec, id);
+                            break;
+                        case PUT:
+                            actual = updateBooking(spec, step.getBooking(), token, id);
+                            break;
+                        case PATCH:
+                            actual = partialUpdateBooking(spec, step.getPatch(), token, id);
+                            break;
+                        default:
+                            deleteBooking(spec, token, id);
+                            live.remove(id);
+                            actual = null;
+                    }
+                } catch (AssertionError e) {
+                    return prefix + " but " + e.getMessage().trim().replaceAll("\\s+", " ");
+                }
+                if (expected.getBooking() != null
+                        && !MAPPER.valueToTree(expected.getBooking()).equals(MAPPER.valueToTree(actual))) {
+                    return String.format("%s with %s but got %s", prefix,
+                            MAPPER.valueToTree(expected.getBooking()), MAPPER.valueToTree(actual));
+                }
+            }
+            return null;
+        } finally {
+            for (int created : live) {
+                given(spec).header("Cookie", "token=" + token).delete("/booking/" + created);
+            }
+        }
+    }
+
+    private int status(FuzzStep step, int id) {
+        RequestSpecification request = given(spec)
+                .header("Cookie", "token=" + (step.isForgedToken() ? FORGED_TOKEN : token));
+        Object body = step.getType() == FuzzStep.Type.PATCH ? step.getPatch() : step.getBooking();
+        if (body != null) {
+            request.contentType(JSON).body(body);
+        }
+        switch (step.getType()) {
+            case CREATE:
+                return request.post("/booking").statusCode();
+            case GET:
+                return request.get("/booking/" + id).statusCode();
+            case PUT:
+                return request.put("/booking/" + id).statusCode();
+            case PATCH:
+                return request.patch("/booking/" + id).statusCode();
+            default:
+                return request.delete("/booking/" + id).statusCode();
+        }
+    }
+
+    FuzzFailure shrink(long seed, List<FuzzStep> failing, String message) {
+        LongAdder steps = new LongAdder();
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        List<FuzzStep> current = failing;
+        String currentMessage = message;
+        int runs = 0;
+
+        int chunk = Math.max(1, current.size() / 2);
+        while (chunk >= 1 && runs < maxShrinkRuns) {
+            boolean removed = false;
+            for (int start = 0; start < current.size() && current.size() > 1 && runs < maxShrinkRuns; ) {
+                List<FuzzStep> candidate = new ArrayList<>(current.subList(0, start));
+                candidate.addAll(current.subList(Math.min(start + chunk, current.size()), current.size()));
+                runs++;
+                String candidateMessage = execute(candidate, steps, outcomes);
+                if (candidateMessage != null) {
+                    current = candidate;
+                    currentMessage = candidateMessage;
+                    removed = true;
+                } else {
+                    start += chunk;
+                }
+            }
+            if (!removed) {
+                chunk /= 2;
+            }
+        }
+
+        for (int i = 0; i < current.size() && runs < maxShrinkRuns; i++) {
+            FuzzStep simpler = current.get(i).simplified();
+            if (simpler == null) {
+                continue;
+            }
+            List<FuzzStep> candidate = new ArrayList<>(current);
+            candidate.set(i, simpler);
+            runs++;
+            String candidateMessage = execute(candidate, steps, outcomes);
+            if (candidateMessage != null) {
+                current = candidate;
+                currentMessage = candidateMessage;
+                i--;
+            }
+        }
+        return new FuzzFailure(seed, failing, current, currentMessage, runs);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.gloomyana.fuzz;
+
+import lombok.Value;
+import ru.gloomyana.models.BookingDatesModel;
+import ru.gloomyana.models.BookingRequestModel;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * In-memory reference for one booking: the status restful-booker should answer for each step and the booking
+ * it should hold afterwards. Checks run in the order the service applies them: token, body, then existence.
+ * {@code accepted} is the contract for a stored booking; restful-booker takes any booking whose required fields
+ * are present, so empty names, negative prices and inverted dates are stored as sent.
+ */
+public class BookingModel {
+    private final Predicate<BookingRequestModel> accepted;
+    private BookingRequestModel current;
+
+    public BookingModel(Predicate<BookingRequestModel> accepted) {
+        this.accepted = accepted;
+    }
+
+    public static boolean complete(BookingRequestModel booking) {
+        BookingDatesModel dates = booking.getBookingDatesModel();
+        return booking.getFirstname() != null && booking.getLastname() != null
+                && dates != null && dates.getCheckin() != null && dates.getCheckout() != null;
+    }
+
+    public boolean exists() {
+        return current != null;
+    }
+
+    public Expectation apply(FuzzStep step) {
+        switch (step.getType()) {
+            case CREATE:
+                if (!accepted.test(step.getBooking())) {
+                    return new Expectation(500, null);
+                }
+                current = step.getBooking();
+                return new Expectation(200, current);
+            case GET:
+                return current == null ? new Expectation(404, null) : new Expectation(200, current);
+            case PUT:
+                if (step.isForgedToken()) {
+                    return new Expectation(403, null);
+                }
+                if (!accepted.test(step.getBooking())) {
+                    return new Expectation(400, null);
+                }
+                if (current == null) {
+                    return new Expectation(405, null);
+                }
+                current = step.getBooking();
+                return new Expectation(200, current);
+            case PATCH:
+                if (step.isForgedToken()) {
+                    return new Expectation(403, null);
+                }
+                if (current == null) {
+                    return new Expectation(405, null);
+                }
+                BookingRequestModel merged = merge(current, step.getPatch());
+                if (!accepted.test(merged)) {
+                    return new Expectation(400, null);
+                }
+                current = merged;
+                return new Expectation(200, current);
+            case DELETE:
+                if (step.isForgedToken()) {
+                    return new Expectation(403, null);
+                }
+                if (current == null) {
+                    return new Expectation(405, null);
+                }
+                current = null;
+                return new Expectation(201, null);
+            default:
+                throw new IllegalArgumentException("Unknown step " + step.getType());
+        }
+    }
+
+    // bookingdates is always patched as a whole, so replacing it matches the service's nested merge
+    static BookingRequestModel merge(BookingRequestModel booking, Map<String, Object> patch) {
+        BookingRequestModel.BookingRequestModelBuilder merged = booking.toBuilder();
+        patch.forEach((field, value) -> {
+            switch (field) {
+                case "firstname":
+                    merged.firstname((String) value);
+                    break;
+                case "lastname":
+                    merged.lastname((String) value);
+                    break;
+                case "totalprice":
+                    merged.totalPrice((Integer) value);
+                    break;
+                case "depositpaid":
+                    merged.depositPaid((Boolean) value);
+                    break;
+                case "bookingdates":
+                    merged.bookingDatesModel((BookingDatesModel) value);
+                    break;
+                case "additionalneeds":
+                    merged.additionalNeeds((String) value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown booking field " + field);
+            }
+        });
+        return merged.build();
+    }
+
+    @Value
+    public static class Expectation {
+        int status;
+        BookingRequestModel booking;
+
+        public boolean succeeds() {
+            return status / 100 == 2;
+        }
+    }
+}
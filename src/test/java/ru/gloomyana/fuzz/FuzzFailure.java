@@ -0,0 +1,28 @@
+package ru.gloomyana.fuzz;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A sequence the server and the model disagreed on, with the smallest sequence shrinking found that still fails.
+ * Running the fuzzer with the same {@code fuzz.seed} generates the original sequence again.
+ */
+@Value
+public class FuzzFailure {
+    long seed;
+    List<FuzzStep> original, shrunk;
+    String message;
+    int shrinkRuns;
+
+    @Override
+    public String toString() {
+        StringBuilder failure = new StringBuilder(String.format(
+                "sequence with seed %d failed, shrunk from %d to %d steps in %d runs: %s%n",
+                seed, original.size(), shrunk.size(), shrinkRuns, message));
+        for (int i = 0; i < shrunk.size(); i++) {
+            failure.append(String.format("  %2d. %s%n", i + 1, shrunk.get(i)));
+        }
+        return failure.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.gloomyana.fuzz;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class FuzzReport {
+    private final long sequences, steps;
+    private final Map<String, Long> outcomes;
+    private final List<FuzzFailure> failures;
+    private final Duration elapsed;
+
+    FuzzReport(long sequences, long steps, Map<String, Long> outcomes, List<FuzzFailure> failures, long elapsedNanos) {
+        this.sequences = sequences;
+        this.steps = steps;
+        this.outcomes = new TreeMap<>(outcomes);
+        this.failures = List.copyOf(failures);
+        this.elapsed = Duration.ofNanos(elapsedNanos);
+    }
+
+    public long sequences() {
+        return sequences;
+    }
+
+    public long steps() {
+        return steps;
+    }
+
+    // expected outcomes the run checked, such as "PUT 400", with how often each came up
+    public Map<String, Long> outcomes() {
+        return outcomes;
+    }
+
+    public List<FuzzFailure> failures() {
+        return failures;
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public double sequencesPerMinute() {
+        return sequences / (Math.max(elapsed.toNanos(), 1) / 60_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format(
+                "%d sequences, %d steps in %d ms, %.0f sequences/min%n",
+                sequences, steps, elapsed.toMillis(), sequencesPerMinute()));
+        outcomes.forEach((outcome, count) -> report.append(String.format("  %-10s %7d%n", outcome, count)));
+        report.append(String.format("%d failures%n", failures.size()));
+        failures.forEach(report::append);
+        return report.toString();
+    }
+}
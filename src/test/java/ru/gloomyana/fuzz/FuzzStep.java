@@ -0,0 +1,57 @@
+package ru.gloomyana.fuzz;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Builder;
+import lombok.Value;
+import ru.gloomyana.models.BookingRequestModel;
+
+import java.util.Map;
+
+/**
+ * One call in a generated sequence, always on the sequence's own booking. CREATE and PUT send {@code booking},
+ * PATCH sends {@code patch}. A mutated step names its mutation and keeps the well-formed step it was made from
+ * in {@code plain}, so shrinking can try the sequence without it.
+ */
+@Value
+@Builder(toBuilder = true)
+public class FuzzStep {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public enum Type {CREATE, GET, PUT, PATCH, DELETE}
+
+    Type type;
+    BookingRequestModel booking;
+    Map<String, Object> patch;
+    String mutation;
+    boolean forgedToken;
+    FuzzStep plain;
+
+    // the same step with one mutation fewer, or null when it is already well-formed
+    public FuzzStep simplified() {
+        if (plain != null) {
+            return plain;
+        }
+        return forgedToken ? toBuilder().forgedToken(false).build() : null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder step = new StringBuilder(type.name());
+        if (mutation != null) {
+            step.append(" [").append(mutation).append(']');
+        }
+        if (forgedToken) {
+            step.append(" with a forged token");
+        }
+        Object body = type == Type.PATCH ? patch : booking;
+        if (body != null) {
+            try {
+                step.append(' ').append(MAPPER.writeValueAsString(body));
+            } catch (JsonProcessingException e) {
+                step.append(' ').append(body);
+            }
+        }
+        return step.toString();
+    }
+}
@@ -1,14 +1,27 @@
 package ru.gloomyana.helpers;
 
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import ru.gloomyana.impact.Endpoints;
 import ru.gloomyana.models.*;
 
+import java.util.Map;
+import java.util.function.Function;
+
 import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
+import static ru.gloomyana.helpers.JsonSchemas.read;
 import static ru.gloomyana.specs.RestfulBookerSpec.*;
 
 public class ApiHelpers {
+    @Endpoints("POST /auth")
     public static AuthResponseModel createToken(AuthRequestModel authRequestModel) {
-        return given(baseRequestSpec)
+        return createToken(baseRequestSpec, authRequestModel);
+    }
+
+    @Endpoints("POST /auth")
+    public static AuthResponseModel createToken(RequestSpecification spec, AuthRequestModel authRequestModel) {
+        return read(given(spec)
                 .contentType(JSON)
                 .body(authRequestModel)
                 .when()
@@ -16,32 +29,118 @@ public class ApiHelpers {
                 .then()
                 .statusCode(200)
                 .spec(authResponseSpec)
-                .extract().as(AuthResponseModel.class);
+                .extract(), AuthResponseModel.class);
     }
 
+    @Endpoints("POST /booking")
     public static CreateBookingResponseModel createBooking(BookingRequestModel bookingRequestModel, String token) {
-        return given(baseRequestSpec)
-                .header("Cookie", "token=" + token)
+        return createBooking(baseRequestSpec, bookingRequestModel, token);
+    }
+
+    @Endpoints("POST /booking")
+    public static CreateBookingResponseModel createBooking(RequestSpecification spec,
+                                                           BookingRequestModel bookingRequestModel, String token) {
+        return read(authenticated(token, value -> given(spec)
+                .header("Cookie", "token=" + value)
                 .contentType(JSON)
                 .body(bookingRequestModel)
                 .when()
-                .post("/booking")
+                .post("/booking"))
                 .then()
                 .statusCode(200)
                 .spec(createBookingResponseSpec)
-                .extract().as(CreateBookingResponseModel.class);
+                .extract(), CreateBookingResponseModel.class);
     }
 
+    @Endpoints("PUT /booking/{id}")
     public static BookingResponseModel updateBooking(BookingRequestModel bookingRequestModel, String token, int id) {
-        return given(baseRequestSpec)
-                .header("Cookie", "token=" + token)
-                .contentType(JSON)
-                .body(bookingRequestModel)
+        return updateBooking(baseRequestSpec, bookingRequestModel, token, id);
+    }
+
+    @Endpoints("PUT /booking/{id}")
+    public static BookingResponseModel updateBooking(RequestSpecification spec,
+                                                     BookingRequestModel bookingRequestModel, String token, int id) {
+        try {
+            return read(authenticated(token, value -> given(spec)
+                    .header("Cookie", "token=" + value)
+                    .contentType(JSON)
+                    .body(bookingRequestModel)
+                    .when()
+                    .put("/booking/" + id))
+                    .then()
+                    .statusCode(200)
+                    .spec(bookingResponseSpec)
+                    .extract(), BookingResponseModel.class);
+        } finally {
+            BookingCache.invalidate(spec, id);
+        }
+    }
+
+    @Endpoints("PATCH /booking/{id}")
+    public static BookingResponseModel partialUpdateBooking(Map<String, ?> fields, String token, int id) {
+        return partialUpdateBooking(baseRequestSpec, fields, token, id);
+    }
+
+    @Endpoints("PATCH /booking/{id}")
+    public static BookingResponseModel partialUpdateBooking(RequestSpecification spec,
+                                                            Map<String, ?> fields, String token, int id) {
+        try {
+            return read(authenticated(token, value -> given(spec)
+                    .header("Cookie", "token=" + value)
+                    .contentType(JSON)
+                    .body(fields)
+                    .when()
+                    .patch("/booking/" + id))
+                    .then()
+                    .statusCode(200)
+                    .spec(bookingResponseSpec)
+                    .extract(), BookingResponseModel.class);
+        } finally {
+            BookingCache.invalidate(spec, id);
+        }
+    }
+
+    @Endpoints("GET /booking/{id}")
+    public static BookingResponseModel getBooking(int id) {
+        return getBooking(baseRequestSpec, id);
+    }
+
+    @Endpoints("GET /booking/{id}")
+    public static BookingResponseModel getBooking(RequestSpecification spec, int id) {
+        if (BookingCache.enabled()) {
+            return BookingCache.shared().get(spec, id);
+        }
+        return read(given(spec)
                 .when()
-                .put("/booking/" + id)
+                .get("/booking/" + id)
                 .then()
                 .statusCode(200)
                 .spec(bookingResponseSpec)
-                .extract().as(BookingResponseModel.class);
+                .extract(), BookingResponseModel.class);
+    }
+
+    @Endpoints("DELETE /booking/{id}")
+    public static void deleteBooking(String token, int id) {
+        deleteBooking(baseRequestSpec, token, id);
+    }
+
+    @Endpoints("DELETE /booking/{id}")
+    public static void deleteBooking(RequestSpecification spec, String token, int id) {
+        try {
+            authenticated(token, value -> given(spec)
+                    .header("Cookie", "token=" + value)
+                    .when()
+                    .delete("/booking/" + id))
+                    .then()
+                    .statusCode(201);
+        } finally {
+            BookingCache.invalidate(spec, id);
+        }
+    }
+
+    // a 403 for a token from AuthTokenProvider is answered by refreshing it once and repeating the call
+    private static Response authenticated(String token, Function<String, Response> call) {
+        AuthTokenProvider issuer = AuthTokenProvider.issuerOf(token);
+        return issuer == null ? call.apply(token) : issuer.withToken(token, call);
     }
 }
@@ -0,0 +1,263 @@
+package ru.gloomyana.helpers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.ConnectionPoolConfig;
+import ru.gloomyana.models.*;
+import ru.gloomyana.specs.RestfulBookerSpec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Non-blocking counterpart of {@link ApiHelpers} on top of {@link HttpClient}.
+ * At most {@code maxInFlight} requests are on the wire at once; further calls are queued without
+ * holding a thread and sent as earlier responses arrive. At most {@code pool.asyncMaxQueued} calls wait in the
+ * queue, and a caller beyond that blocks until one of them is sent, so memory stays bounded. With {@code transport=http2} they are multiplexed over
+ * HTTP/2 when the server takes it, see {@link Http2Transport}.
+ */
+public class AsyncBookingClient {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final int maxInFlight, maxQueued;
+    private final AtomicInteger inFlight = new AtomicInteger(), drains = new AtomicInteger();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final Semaphore queueSlots;
+
+    public AsyncBookingClient(HttpClient client, String baseUrl, Duration requestTimeout, int maxInFlight,
+                              int maxQueued) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.queueSlots = new Semaphore(maxQueued);
+    }
+
+    public static AsyncBookingClient create() {
+        ConnectionPoolConfig config = ConfigFactory.create(ConnectionPoolConfig.class, System.getProperties());
+        return create(RestfulBookerSpec.baseUrl(), config);
+    }
+
+    public static AsyncBookingClient create(String baseUrl, ConnectionPoolConfig config) {
+        return create(baseUrl, config, config.asyncMaxInFlight());
+    }
+
+    public static AsyncBookingClient create(String baseUrl, ConnectionPoolConfig config, int maxInFlight) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(Http2Transport.enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.connectTimeoutMillis()))
+                .build();
+        return new AsyncBookingClient(client, baseUrl, Duration.ofMillis(config.readTimeoutMillis()), maxInFlight,
+                config.asyncMaxQueued());
+    }
+
+    public CompletableFuture<AuthResponseModel> createToken(AuthRequestModel authRequestModel) {
+        return send(request("/auth").POST(json(authRequestModel)), AuthResponseModel.class);
+    }
+
+    public CompletableFuture<CreateBookingResponseModel> createBooking(BookingRequestModel bookingRequestModel,
+                                                                       String token) {
+        return send(request("/booking")
+                .header("Cookie", "token=" + token)
+                .POST(json(bookingRequestModel)), CreateBookingResponseModel.class);
+    }
+
+    public CompletableFuture<BookingResponseModel> updateBooking(BookingRequestModel bookingRequestModel,
+                                                                 String token, int id) {
+        return send(request("/booking/" + id)
+                .header("Cookie", "token=" + token)
+                .PUT(json(bookingRequestModel)), BookingResponseModel.class);
+    }
+
+    public CompletableFuture<BookingResponseModel> getBooking(int id) {
+        return send(request("/booking/" + id).GET(), BookingResponseModel.class);
+    }
+
+    // completes with the status rather than failing, since a booking may have been deleted already
+    public CompletableFuture<Integer> deleteBooking(String token, int id) {
+        HttpRequest request = request("/booking/" + id)
+                .header("Cookie", "token=" + token)
+                .DELETE()
+                .build();
+        return limit(() -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    /**
+     * Streams the ids of GET /booking into {@code sink} as they arrive and completes with their count.
+     * The request holds its in-flight slot until the whole body has been read.
+     */
+    public CompletableFuture<Integer> getBookingIds(BookingFilterModel filter, IntConsumer sink) {
+        HttpRequest request = request("/booking" + query(filter)).GET().build();
+        return limit(() -> client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    try (InputStream body = ok(request, response)) {
+                        return BookingIdReader.readAll(body, sink);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+    }
+
+    // blocking and outside the in-flight limit; close the stream to release the connection
+    public IntStream streamBookingIds(BookingFilterModel filter) throws IOException, InterruptedException {
+        HttpRequest request = request("/booking" + query(filter)).GET().build();
+        return BookingIdReader.stream(ok(request, client.send(request, HttpResponse.BodyHandlers.ofInputStream())));
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    // waiting for an in-flight slot
+    public int queued() {
+        return maxQueued - queueSlots.availablePermits();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private static String query(BookingFilterModel filter) {
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (filter != null) {
+            param(query, "firstname", filter.getFirstname());
+            param(query, "lastname", filter.getLastname());
+            param(query, "checkin", filter.getCheckin());
+            param(query, "checkout", filter.getCheckout());
+        }
+        return query.toString();
+    }
+
+    private static void param(StringJoiner query, String name, String value) {
+        if (value != null) {
+            query.add(name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> send(HttpRequest.Builder builder, Class<T> type) {
+        HttpRequest request = builder.build();
+        return limit(() -> client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()))
+                .thenApply(response -> read(request, response, type));
+    }
+
+    private static InputStream ok(HttpRequest request, HttpResponse<InputStream> response) {
+        if (response.statusCode() != 200) {
+            try (InputStream body = response.body()) {
+                throw new UnexpectedStatusError(request, response.statusCode(), body.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return response.body();
+    }
+
+    private static <T> T read(HttpRequest request, HttpResponse<byte[]> response, Class<T> type) {
+        if (response.statusCode() != 200) {
+            throw new UnexpectedStatusError(request, response.statusCode(), response.body());
+        }
+        try {
+            return MAPPER.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static class UnexpectedStatusError extends AssertionError {
+        private final int statusCode;
+
+        UnexpectedStatusError(HttpRequest request, int statusCode, byte[] body) {
+            super(String.format("%s %s: expected status code <200> but was <%d>: %s",
+                    request.method(), request.uri().getPath(), statusCode, new String(body, StandardCharsets.UTF_8)));
+            this.statusCode = statusCode;
+        }
+
+        public int statusCode() {
+            return statusCode;
+        }
+    }
+
+    private <T> CompletableFuture<T> limit(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            queueSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room in the request queue", e);
+        }
+        pending.add(() -> start(call).whenComplete((value, error) -> {
+            inFlight.decrementAndGet();
+            drain();
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        }));
+        drain();
+        return result;
+    }
+
+    private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // one thread drains at a time; a call that completes inline asks for another pass instead of recursing
+    private void drain() {
+        if (drains.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (inFlight.get() < maxInFlight) {
+                Runnable next = pending.poll();
+                if (next == null) {
+                    break;
+                }
+                queueSlots.release();
+                inFlight.incrementAndGet();
+                next.run();
+            }
+            missed = drains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.gloomyana.helpers;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.attachment.AttachmentContent;
+import io.qameta.allure.attachment.FreemarkerAttachmentRenderer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders request/response attachments on a background thread. The attachment slot is reserved in the
+ * current Allure test on the calling thread, so it lands in the right test even though the file is
+ * written later. When the queue is full the caller renders itself, which bounds memory.
+ */
+class AttachmentWriter {
+    private final FreemarkerAttachmentRenderer requestRenderer = new FreemarkerAttachmentRenderer("request.ftl");
+    private final FreemarkerAttachmentRenderer responseRenderer = new FreemarkerAttachmentRenderer("response.ftl");
+    private final ThreadPoolExecutor executor;
+
+    AttachmentWriter(int queueCapacity) {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "allure-attachment-writer");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
+    }
+
+    void attach(CapturedExchange exchange) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String requestSource = lifecycle.prepareAttachment("Request", "text/html", ".html");
+        String responseSource = lifecycle.prepareAttachment(exchange.statusLine, "text/html", ".html");
+        executor.execute(() -> {
+            write(lifecycle, requestSource, requestRenderer.render(exchange.requestAttachment()));
+            write(lifecycle, responseSource, responseRenderer.render(exchange.responseAttachment()));
+        });
+    }
+
+    private static void write(AllureLifecycle lifecycle, String source, AttachmentContent content) {
+        lifecycle.writeAttachment(source,
+                new ByteArrayInputStream(content.getContent().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    void flush() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ru.gloomyana.helpers;
+
+import io.restassured.response.Response;
+import ru.gloomyana.config.AuthConfig;
+import ru.gloomyana.models.AuthRequestModel;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shares one auth token per set of credentials across tests and threads.
+ * A token is fetched on first use and again when its TTL passes or the service rejects it with 403;
+ * concurrent callers that find the token stale wait on a single in-flight POST /auth.
+ * {@link ApiHelpers} repeats a call that got 403 for a token from here once, with the refreshed token.
+ * The counters of every provider from {@link #forConfig} are written to token-cache.txt when the run is over.
+ */
+public class AuthTokenProvider {
+    private static final Map<AuthRequestModel, AuthTokenProvider> PROVIDERS = new ConcurrentHashMap<>();
+    // weak keys: a replaced token is dropped once no caller holds it any more
+    private static final Map<String, AuthTokenProvider> ISSUERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(AuthTokenProvider::report));
+    }
+
+    private final AuthRequestModel credentials;
+    private final Function<AuthRequestModel, String> fetcher;
+    private final long ttlNanos;
+    private final AtomicReference<CompletableFuture<CachedToken>> current = new AtomicReference<>();
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), refreshes = new LongAdder();
+
+    public AuthTokenProvider(AuthRequestModel credentials, Duration ttl, Function<AuthRequestModel, String> fetcher) {
+        this.credentials = credentials;
+        this.ttlNanos = ttl.toNanos();
+        this.fetcher = fetcher;
+    }
+
+    public static AuthTokenProvider forConfig(AuthConfig config) {
+        return PROVIDERS.computeIfAbsent(new AuthRequestModel(config.username(), config.password()),
+                credentials -> new AuthTokenProvider(credentials, Duration.ofSeconds(config.tokenTtlSeconds()),
+                        key -> ApiHelpers.createToken(key).getToken()));
+    }
+
+    public String token() {
+        while (true) {
+            CompletableFuture<CachedToken> cached = current.get();
+            if (cached == null) {
+                String token = fetch(null, misses);
+                if (token != null) {
+                    return token;
+                }
+            } else if (!cached.isDone()) {
+                hits.increment();
+                return await(cached).value;
+            } else {
+                CachedToken token = await(cached);
+                if (System.nanoTime() - token.expiresAt < 0) {
+                    hits.increment();
+                    return token.value;
+                }
+                String refreshed = fetch(cached, refreshes);
+                if (refreshed != null) {
+                    return refreshed;
+                }
+            }
+        }
+    }
+
+    // Called when the service answered 403 for this token; only the first caller per token triggers a refetch
+    public String refresh(String rejectedToken) {
+        while (true) {
+            CompletableFuture<CachedToken> cached = current.get();
+            if (cached != null && (!cached.isDone() || !await(cached).value.equals(rejectedToken))) {
+                return token();
+            }
+            String refreshed = fetch(cached, refreshes);
+            if (refreshed != null) {
+                return refreshed;
+            }
+        }
+    }
+
+    // the provider that handed out this token, or null for a token from anywhere else
+    public static AuthTokenProvider issuerOf(String token) {
+        return token == null ? null : ISSUERS.get(token);
+    }
+
+    public Response withToken(String token, Function<String, Response> call) {
+        Response response = call.apply(token);
+        return response.statusCode() == 403 ? call.apply(refresh(token)) : response;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long refreshes() {
+        return refreshes.sum();
+    }
+
+    private static void report() {
+        if (!PROVIDERS.isEmpty()) {
+            MetricsFiles.write("token-cache.txt", PROVIDERS.values().stream()
+                    .map(AuthTokenProvider::toString)
+                    .collect(Collectors.joining(System.lineSeparator())));
+        }
+    }
+
+    // Returns null when another thread swapped the cache entry first, so the caller re-reads it
+    private String fetch(CompletableFuture<CachedToken> stale, LongAdder counter) {
+        CompletableFuture<CachedToken> inFlight = new CompletableFuture<>();
+        if (!current.compareAndSet(stale, inFlight)) {
+            return null;
+        }
+        counter.increment();
+        try {
+            String token = fetcher.apply(credentials);
+            if (token == null) {
+                throw new IllegalStateException("POST /auth returned no token for user " + credentials.getUsername());
+            }
+            ISSUERS.put(token, this);
+            inFlight.complete(new CachedToken(token, System.nanoTime() + ttlNanos));
+            return token;
+        } catch (RuntimeException | Error e) {
+            current.compareAndSet(inFlight, null);
+            inFlight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static CachedToken await(CompletableFuture<CachedToken> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("auth token cache for %s: %d hits, %d misses, %d refreshes",
+                credentials.getUsername(), hits(), misses(), refreshes());
+    }
+
+    private static class CachedToken {
+        final String value;
+        final long expiresAt;
+
+        CachedToken(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package ru.gloomyana.helpers;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.BookingCacheConfig;
+import ru.gloomyana.models.BookingResponseModel;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.restassured.RestAssured.given;
+import static ru.gloomyana.specs.RestfulBookerSpec.bookingResponseSpec;
+
+/**
+ * Read-through cache for GET /booking/{id}, keyed by base URI and id, holding at most {@code maxEntries}
+ * bookings in least-recently-used order. A booking younger than the TTL is returned without a request; an older
+ * one is revalidated with {@code If-None-Match} when the server sent an ETag, so a 304 skips the body and its
+ * deserialization.
+ * <p>
+ * PUT, PATCH and DELETE through {@link ApiHelpers} drop the booking from every open cache. A load that overlaps
+ * such a write is returned but not stored, since it may have read the booking from before the write. Changes
+ * made by other clients are only seen once the TTL passes.
+ * <p>
+ * {@link ApiHelpers#getBooking} goes through {@link #shared()} when {@code bookingCache.enabled} is set.
+ * Cached bookings are shared between callers and must not be modified.
+ * The counters of the shared cache are written to booking-cache.txt in the metrics directory after the run.
+ */
+public class BookingCache implements AutoCloseable {
+    private static final BookingCacheConfig CONFIG = ConfigFactory.create(BookingCacheConfig.class, System.getProperties());
+    private static final Set<BookingCache> OPEN = ConcurrentHashMap.newKeySet();
+    private static volatile BookingCache shared;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final Map<String, Load> loading = new HashMap<>();
+    private final LongAdder hits = new LongAdder(), revalidated = new LongAdder(), misses = new LongAdder(),
+            evictions = new LongAdder(), invalidations = new LongAdder(), savedNanos = new LongAdder();
+
+    public BookingCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > BookingCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        OPEN.add(this);
+    }
+
+    public static boolean enabled() {
+        return CONFIG.enabled();
+    }
+
+    public static BookingCache shared() {
+        if (shared == null) {
+            synchronized (BookingCache.class) {
+                if (shared == null) {
+                    BookingCache cache = new BookingCache(CONFIG.maxEntries(), Duration.ofSeconds(CONFIG.ttlSeconds()));
+                    Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                            MetricsFiles.write("booking-cache.txt", cache)));
+                    shared = cache;
+                }
+            }
+        }
+        return shared;
+    }
+
+    // called by ApiHelpers after every write, successful or not
+    public static void invalidate(RequestSpecification spec, int id) {
+        if (OPEN.isEmpty()) {
+            return;
+        }
+        String key = key(spec, id);
+        for (BookingCache cache : OPEN) {
+            cache.remove(key);
+        }
+    }
+
+    public BookingResponseModel get(RequestSpecification spec, int id) {
+        String key = key(spec, id);
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        long start = System.nanoTime();
+        if (cached != null && start - cached.expiresAt < 0) {
+            hits.increment();
+            savedNanos.add(cached.loadNanos);
+            return cached.booking;
+        }
+
+        Load load;
+        long version;
+        synchronized (entries) {
+            load = loading.computeIfAbsent(key, ignored -> new Load());
+            load.count++;
+            version = load.version;
+        }
+        Entry loaded = null;
+        try {
+            RequestSpecification request = given(spec);
+            if (cached != null && cached.etag != null) {
+                request.header("If-None-Match", cached.etag);
+            }
+            Response response = request.when().get("/booking/" + id);
+            long elapsed = System.nanoTime() - start;
+            if (cached != null && response.statusCode() == 304) {
+                revalidated.increment();
+                savedNanos.add(Math.max(0, cached.loadNanos - elapsed));
+                loaded = new Entry(cached.booking, cached.etag, cached.loadNanos, System.nanoTime() + ttlNanos);
+                return cached.booking;
+            }
+
+            misses.increment();
+            BookingResponseModel booking = JsonSchemas.read(response.then()
+                    .statusCode(200)
+                    .spec(bookingResponseSpec)
+                    .extract(), BookingResponseModel.class);
+            long now = System.nanoTime();
+            loaded = new Entry(booking, response.header("ETag"), now - start, now + ttlNanos);
+            return booking;
+        } finally {
+            synchronized (entries) {
+                if (loaded != null && load.version == version) {
+                    entries.put(key, loaded);
+                }
+                if (--load.count == 0) {
+                    loading.remove(key);
+                }
+            }
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (entries) {
+            Load load = loading.get(key);
+            if (load != null) {
+                load.version++;
+            }
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    private static String key(RequestSpecification spec, int id) {
+        return SpecificationQuerier.query(spec).getBaseUri() + "/booking/" + id;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long revalidated() {
+        return revalidated.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    // share of lookups answered without a body, whether straight from the cache or by a 304
+    public double hitRatio() {
+        long lookups = hits() + revalidated() + misses();
+        return lookups == 0 ? 0 : (double) (hits() + revalidated()) / lookups;
+    }
+
+    // the original load time of every hit, plus what each 304 took less than that load
+    public Duration savedLatency() {
+        return Duration.ofNanos(savedNanos.sum());
+    }
+
+    @Override
+    public void close() {
+        OPEN.remove(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("booking cache: %d hits, %d revalidated, %d misses, %d evictions, %d invalidations, "
+                        + "hit ratio %.1f%%, saved %d ms",
+                hits(), revalidated(), misses(), evictions(), invalidations(), hitRatio() * 100,
+                TimeUnit.NANOSECONDS.toMillis(savedNanos.sum()));
+    }
+
+    // loads of one key in flight; a write in between bumps the version so none of them is stored
+    private static class Load {
+        int count;
+        long version;
+    }
+
+    private static class Entry {
+        final BookingResponseModel booking;
+        final String etag;
+        final long loadNanos, expiresAt;
+
+        Entry(BookingResponseModel booking, String etag, long loadNanos, long expiresAt) {
+            this.booking = booking;
+            this.etag = etag;
+            this.loadNanos = loadNanos;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
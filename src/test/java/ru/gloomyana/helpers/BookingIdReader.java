@@ -0,0 +1,101 @@
+package ru.gloomyana.helpers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the {@code [{"bookingid":N},...]} body of GET /booking token by token, so memory stays flat
+ * however many ids the response holds. Other fields of each element are skipped.
+ */
+public class BookingIdReader implements Closeable {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonParser parser;
+    private boolean started;
+
+    public BookingIdReader(InputStream body) throws IOException {
+        this.parser = JSON.createParser(body);
+    }
+
+    public static int readAll(InputStream body, IntConsumer sink) throws IOException {
+        try (BookingIdReader reader = new BookingIdReader(body)) {
+            int count = 0;
+            while (reader.next(sink)) {
+                count++;
+            }
+            return count;
+        }
+    }
+
+    // lazy; closing the stream closes the body
+    public static IntStream stream(InputStream body) throws IOException {
+        BookingIdReader reader = new BookingIdReader(body);
+        Spliterator.OfInt ids = new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                try {
+                    return reader.next(action);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.intStream(ids, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public boolean next(IntConsumer sink) throws IOException {
+        if (!started) {
+            started = true;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of booking ids");
+            }
+        }
+        while (true) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                return false;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a booking id object but got " + token);
+            }
+            boolean found = false;
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                parser.nextToken();
+                if (!found && "bookingid".equals(field)) {
+                    sink.accept(parser.getIntValue());
+                    found = true;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (found) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
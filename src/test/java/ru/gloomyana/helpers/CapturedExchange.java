@@ -0,0 +1,65 @@
+package ru.gloomyana.helpers;
+
+import io.qameta.allure.attachment.http.HttpRequestAttachment;
+import io.qameta.allure.attachment.http.HttpResponseAttachment;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// a call as LowOverheadAllureFilter keeps it, rendered into the same attachments AllureRestAssured writes
+public class CapturedExchange {
+    final String method, url, requestBody, statusLine, responseBody;
+    final Map<String, String> requestHeaders, responseHeaders;
+    final int statusCode;
+
+    public CapturedExchange(FilterableRequestSpecification request, Response response, int maxBodyChars) {
+        method = request.getMethod();
+        url = request.getURI();
+        requestHeaders = toMap(request.getHeaders());
+        requestBody = request.getBody() == null ? null : truncate(String.valueOf((Object) request.getBody()), maxBodyChars);
+        statusCode = response.getStatusCode();
+        statusLine = response.getStatusLine();
+        responseHeaders = toMap(response.getHeaders());
+        responseBody = truncate(response.asString(), maxBodyChars);
+    }
+
+    // GET and DELETE have no body, and the builders reject a null one
+    public HttpRequestAttachment requestAttachment() {
+        HttpRequestAttachment.Builder builder = HttpRequestAttachment.Builder.create("Request", url)
+                .setMethod(method)
+                .setHeaders(requestHeaders);
+        if (requestBody != null) {
+            builder.setBody(requestBody);
+        }
+        return builder.build();
+    }
+
+    public HttpResponseAttachment responseAttachment() {
+        HttpResponseAttachment.Builder builder = HttpResponseAttachment.Builder.create(statusLine)
+                .setResponseCode(statusCode)
+                .setHeaders(responseHeaders);
+        if (responseBody != null) {
+            builder.setBody(responseBody);
+        }
+        return builder.build();
+    }
+
+    private static Map<String, String> toMap(Headers headers) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (Header header : headers) {
+            map.merge(header.getName(), header.getValue(), (first, second) -> first + ", " + second);
+        }
+        return map;
+    }
+
+    private static String truncate(String body, int maxChars) {
+        if (body == null || body.length() <= maxChars) {
+            return body;
+        }
+        return body.substring(0, maxChars) + "... [truncated " + (body.length() - maxChars) + " chars]";
+    }
+}
@@ -0,0 +1,141 @@
+package ru.gloomyana.helpers;
+
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.ConcurrencyConfig;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs N simulated clients concurrently and waits for all of them. The first client that throws,
+ * including a failed {@code assertThat}, cancels the rest and is rethrown on the test thread with any
+ * other failures attached as suppressed exceptions. The clients record their requests into the
+ * {@link LatencyRecorder} scopes of the calling thread.
+ * <p>
+ * {@link Mode#VIRTUAL} needs a JDK with virtual threads (21+); on older runtimes it falls back to a
+ * bounded platform pool of {@code concurrency.platformThreads}.
+ */
+public class ConcurrentClients {
+    private static final Method VIRTUAL_EXECUTOR = virtualExecutorFactory();
+
+    public enum Mode {VIRTUAL, PLATFORM}
+
+    @FunctionalInterface
+    public interface Client<T> {
+        T call(int index) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface VoidClient {
+        void run(int index) throws Exception;
+    }
+
+    private final Mode mode;
+    private final int platformThreads;
+
+    public ConcurrentClients(Mode mode, int platformThreads) {
+        this.mode = mode;
+        this.platformThreads = platformThreads;
+    }
+
+    public static ConcurrentClients fromConfig() {
+        ConcurrencyConfig config = ConfigFactory.create(ConcurrencyConfig.class, System.getProperties());
+        return new ConcurrentClients(Mode.valueOf(config.mode().toUpperCase()), config.platformThreads());
+    }
+
+    public static ConcurrentClients of(Mode mode) {
+        return new ConcurrentClients(mode, fromConfig().platformThreads);
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    public Mode effectiveMode() {
+        return mode == Mode.VIRTUAL && virtualThreadsSupported() ? Mode.VIRTUAL : Mode.PLATFORM;
+    }
+
+    public void run(int clients, VoidClient client) {
+        call(clients, index -> {
+            client.run(index);
+            return null;
+        });
+    }
+
+    public <T> List<T> call(int clients, Client<T> client) {
+        ExecutorService executor = newExecutor();
+        try {
+            ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(executor);
+            List<Future<T>> futures = new ArrayList<>(clients);
+            List<LatencyRecorder> scopes = LatencyRecorder.scopes();
+            for (int i = 0; i < clients; i++) {
+                int index = i;
+                futures.add(completion.submit(LatencyRecorder.inScopes(scopes, () -> client.call(index))));
+            }
+
+            Throwable failure = null;
+            for (int i = 0; i < clients; i++) {
+                Future<T> done = completion.take();
+                try {
+                    done.get();
+                } catch (CancellationException ignored) {
+                    // cancelled after an earlier client failed
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                        futures.forEach(future -> future.cancel(true));
+                    } else if (failure != e.getCause()) {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw sneakyThrow(failure);
+            }
+
+            List<T> results = new ArrayList<>(clients);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for concurrent clients", e);
+        } catch (ExecutionException e) {
+            throw sneakyThrow(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExecutorService newExecutor() {
+        if (effectiveMode() == Mode.VIRTUAL) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to create virtual thread executor", e);
+            }
+        }
+        return Executors.newFixedThreadPool(platformThreads);
+    }
+
+    private static Method virtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneakyThrow(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.gloomyana.helpers;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.params.SyncBasicHttpParams;
+import org.apache.http.pool.PoolStats;
+import ru.gloomyana.config.ConnectionPoolConfig;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One keep-alive HttpClient shared by every REST Assured request, so connections (and TLS sessions)
+ * are reused across calls and threads instead of being opened per request.
+ * REST Assured only accepts {@link org.apache.http.impl.client.AbstractHttpClient}, hence the 4.x pooling manager.
+ * Pool stats are written to connection-pool.txt in the metrics directory when the run is over.
+ */
+// the 4.x client API REST Assured 5 requires is deprecated as a whole; there is no non-deprecated way to build it
+@SuppressWarnings("deprecation")
+public class ConnectionPool implements AutoCloseable {
+    private static volatile ConnectionPool shared;
+
+    private final PoolingClientConnectionManager manager = new PoolingClientConnectionManager();
+    private final DefaultHttpClient client;
+    private final ScheduledExecutorService evictor;
+
+    public ConnectionPool(ConnectionPoolConfig config) {
+        manager.setMaxTotal(config.maxTotal());
+        manager.setDefaultMaxPerRoute(config.maxPerRoute());
+
+        HttpParams params = new SyncBasicHttpParams();
+        DefaultHttpClient.setDefaultHttpParams(params);
+        HttpConnectionParams.setConnectionTimeout(params, config.connectTimeoutMillis());
+        HttpConnectionParams.setSoTimeout(params, config.readTimeoutMillis());
+
+        long keepAliveMillis = TimeUnit.SECONDS.toMillis(config.keepAliveSeconds());
+        client = new DefaultHttpClient(manager, params);
+        client.setKeepAliveStrategy((response, context) -> {
+            long advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return advertised > 0 ? Math.min(advertised, keepAliveMillis) : keepAliveMillis;
+        });
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long idleSeconds = config.idleEvictionSeconds();
+        evictor.scheduleWithFixedDelay(() -> {
+            manager.closeExpiredConnections();
+            manager.closeIdleConnections(idleSeconds, TimeUnit.SECONDS);
+        }, idleSeconds, idleSeconds, TimeUnit.SECONDS);
+    }
+
+    public static ConnectionPool shared() {
+        if (shared == null) {
+            synchronized (ConnectionPool.class) {
+                if (shared == null) {
+                    ConnectionPool pool = new ConnectionPool(
+                            ConfigFactory.create(ConnectionPoolConfig.class, System.getProperties()));
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        MetricsFiles.write("connection-pool.txt", pool);
+                        pool.close();
+                    }));
+                    shared = pool;
+                }
+            }
+        }
+        return shared;
+    }
+
+    public static RestAssuredConfig restAssuredConfig() {
+        ConnectionPoolConfig config = ConfigFactory.create(ConnectionPoolConfig.class, System.getProperties());
+        return config.enabled() ? shared().config() : RestAssuredConfig.config();
+    }
+
+    public RestAssuredConfig config() {
+        return RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> client));
+    }
+
+    // REST Assured reads response bodies lazily, so an unread body would keep its connection leased forever
+    public static Filter releaseConnection() {
+        return (requestSpec, responseSpec, context) -> {
+            Response response = context.next(requestSpec, responseSpec);
+            response.asByteArray();
+            return response;
+        };
+    }
+
+    public PoolStats stats() {
+        return manager.getTotalStats();
+    }
+
+    public PoolStats stats(String baseUrl) {
+        return manager.getStats(new HttpRoute(HttpHost.create(baseUrl)));
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        manager.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        PoolStats stats = stats();
+        return String.format("connection pool: %d leased, %d available, %d pending, %d max",
+                stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+}
@@ -1,13 +1,34 @@
 package ru.gloomyana.helpers;
 
 import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.filter.Filter;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.ReportingConfig;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.util.Map;
 
 public class CustomAllureListener {
-    private static final AllureRestAssured FILTER = new AllureRestAssured();
+    // against the embedded server only failures are reported unless reporting.mode is set
+    private static final ReportingConfig CONFIG = ConfigFactory.create(ReportingConfig.class, System.getProperties(),
+            EmbeddedBookerServer.selected() ? Map.of("reporting.mode", "failures") : Map.of());
+    private static final AttachmentWriter WRITER = new AttachmentWriter(CONFIG.queueCapacity());
+    private static final Filter FILTER = isFullReporting()
+            ? new AllureRestAssured()
+            .setRequestTemplate("request.ftl")
+            .setResponseTemplate("response.ftl")
+            : new LowOverheadAllureFilter(CONFIG, WRITER);
 
-    public static AllureRestAssured withCustomTemplates() {
-        FILTER.setRequestTemplate("request.ftl");
-        FILTER.setResponseTemplate("response.ftl");
+    public static Filter withCustomTemplates() {
         return FILTER;
     }
+
+    // In "full" mode every call is attached and logged to the console; "failures" and "sampled" do neither
+    public static boolean isFullReporting() {
+        return CONFIG.mode().equalsIgnoreCase("full");
+    }
+
+    static AttachmentWriter attachmentWriter() {
+        return WRITER;
+    }
 }
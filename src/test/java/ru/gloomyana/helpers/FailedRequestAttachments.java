@@ -0,0 +1,21 @@
+package ru.gloomyana.helpers;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+
+// Registered through META-INF/services; attaches the calls buffered by LowOverheadAllureFilter when a test fails
+public class FailedRequestAttachments implements AfterTestExecutionCallback {
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Allure.getLifecycle().getCurrentTestCase().ifPresent(testCase -> {
+            List<CapturedExchange> exchanges = LowOverheadAllureFilter.drain(testCase);
+            if (context.getExecutionException().isPresent()) {
+                exchanges.forEach(CustomAllureListener.attachmentWriter()::attach);
+            }
+        });
+    }
+}
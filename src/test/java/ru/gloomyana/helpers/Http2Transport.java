@@ -0,0 +1,225 @@
+package ru.gloomyana.helpers;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import ru.gloomyana.config.ApiConfig;
+import ru.gloomyana.config.ConnectionPoolConfig;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends REST Assured requests over HTTP/2 with {@link HttpClient}; REST Assured's own Apache HttpClient 4 only
+ * speaks HTTP/1.1. Concurrent requests to a server share {@code transport.connections} connections as
+ * multiplexed streams instead of taking a pooled connection each. Over https HTTP/2 is negotiated with ALPN,
+ * over plain http with an h2c upgrade; a server that offers neither is answered over HTTP/1.1 by the same
+ * clients, and {@link #http1Responses()} counts how often that happened.
+ * <p>
+ * Selected with {@code transport=http2}. It is plugged in through {@link #config()} as the client REST Assured
+ * sends with, so every filter, the timing of the response included, runs as it does over HTTP/1.1.
+ * The stats of the shared transport are written to http2-transport.txt in the metrics directory after the run.
+ */
+// the client REST Assured 5 takes has to be a 4.x AbstractHttpClient, whose API is deprecated as a whole
+@SuppressWarnings("deprecation")
+public class Http2Transport {
+    private static final ApiConfig CONFIG = ConfigFactory.create(ApiConfig.class, System.getProperties());
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+            "upgrade");
+    private static volatile Http2Transport shared;
+
+    private final HttpClient[] clients;
+    private final Duration requestTimeout;
+    private final RestAssuredConfig config;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, CompletableFuture<Void>> firstRequests = new ConcurrentHashMap<>();
+    private final LongAdder http2Responses = new LongAdder(), http1Responses = new LongAdder();
+
+    public Http2Transport(int connections, ConnectionPoolConfig config) {
+        this.clients = new HttpClient[connections];
+        for (int i = 0; i < connections; i++) {
+            clients[i] = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(config.connectTimeoutMillis()))
+                    .build();
+        }
+        this.requestTimeout = Duration.ofMillis(config.readTimeoutMillis());
+        Client client = new Client();
+        this.config = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> client));
+    }
+
+    public static boolean enabled() {
+        return "http2".equals(CONFIG.transport());
+    }
+
+    public static Http2Transport shared() {
+        if (shared == null) {
+            synchronized (Http2Transport.class) {
+                if (shared == null) {
+                    Http2Transport transport = new Http2Transport(CONFIG.transportConnections(),
+                            ConfigFactory.create(ConnectionPoolConfig.class, System.getProperties()));
+                    Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                            MetricsFiles.write("http2-transport.txt", transport)));
+                    shared = transport;
+                }
+            }
+        }
+        return shared;
+    }
+
+    // in place of ConnectionPool.restAssuredConfig()
+    public RestAssuredConfig config() {
+        return config;
+    }
+
+    private HttpResponse<byte[]> send(HttpUriRequest request) throws IOException {
+        int index = Math.floorMod(next.getAndIncrement(), clients.length);
+        HttpRequest converted = request(request);
+        String connection = index + " " + converted.uri().getScheme() + "://" + converted.uri().getAuthority();
+        HttpResponse<byte[]> response = sendAfterFirst(connection, clients[index], converted);
+        (response.version() == HttpClient.Version.HTTP_2 ? http2Responses : http1Responses).increment();
+        return response;
+    }
+
+    // the first request on a connection goes alone, so the others find it upgraded instead of upgrading their own
+    private HttpResponse<byte[]> sendAfterFirst(String connection, HttpClient client, HttpRequest request)
+            throws IOException {
+        CompletableFuture<Void> first = firstRequests.get(connection);
+        if (first == null) {
+            first = new CompletableFuture<>();
+            CompletableFuture<Void> earlier = firstRequests.putIfAbsent(connection, first);
+            if (earlier == null) {
+                try {
+                    upgrade(client, request);
+                    return send(client, request);
+                } finally {
+                    first.complete(null);
+                }
+            }
+            first = earlier;
+        }
+        first.join();
+        return send(client, request);
+    }
+
+    // servers such as Jetty take an h2c upgrade only on a request without a body, so one is sent ahead of it
+    private void upgrade(HttpClient client, HttpRequest request) throws IOException {
+        boolean hasBody = request.bodyPublisher().map(body -> body.contentLength() != 0).orElse(false);
+        if (hasBody && "http".equals(request.uri().getScheme())) {
+            send(client, HttpRequest.newBuilder(request.uri())
+                    .method("OPTIONS", HttpRequest.BodyPublishers.noBody())
+                    .timeout(requestTimeout)
+                    .build());
+        }
+    }
+
+    private static HttpResponse<byte[]> send(HttpClient client, HttpRequest request) throws IOException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + request.uri(), e);
+        }
+    }
+
+    private HttpRequest request(HttpUriRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getURI()).timeout(requestTimeout);
+        for (Header header : request.getAllHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+        HttpEntity entity = request instanceof HttpEntityEnclosingRequest
+                ? ((HttpEntityEnclosingRequest) request).getEntity()
+                : null;
+        if (entity == null) {
+            return builder.method(request.getMethod(), HttpRequest.BodyPublishers.noBody()).build();
+        }
+        // what Apache's RequestContent interceptor would have added from the entity
+        if (!request.containsHeader("Content-Type") && entity.getContentType() != null) {
+            builder.header("Content-Type", entity.getContentType().getValue());
+        }
+        if (!request.containsHeader("Content-Encoding") && entity.getContentEncoding() != null) {
+            builder.header("Content-Encoding", entity.getContentEncoding().getValue());
+        }
+        return builder.method(request.getMethod(),
+                HttpRequest.BodyPublishers.ofByteArray(EntityUtils.toByteArray(entity))).build();
+    }
+
+    private static CloseableHttpResponse response(HttpResponse<byte[]> response) {
+        ProtocolVersion version = response.version() == HttpClient.Version.HTTP_2
+                ? new ProtocolVersion("HTTP", 2, 0)
+                : HttpVersion.HTTP_1_1;
+        BufferedResponse converted = new BufferedResponse(version, response.statusCode(),
+                EnglishReasonPhraseCatalog.INSTANCE.getReason(response.statusCode(), Locale.ENGLISH));
+        response.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":")) {
+                values.forEach(value -> converted.addHeader(name, value));
+            }
+        });
+        ByteArrayEntity entity = new ByteArrayEntity(response.body());
+        response.headers().firstValue("Content-Type").ifPresent(entity::setContentType);
+        response.headers().firstValue("Content-Encoding").ifPresent(entity::setContentEncoding);
+        converted.setEntity(entity);
+        return converted;
+    }
+
+    public long http2Responses() {
+        return http2Responses.sum();
+    }
+
+    // answered over HTTP/1.1 because the server did not take HTTP/2
+    public long http1Responses() {
+        return http1Responses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("http2 transport: %d connections per server, %d responses over HTTP/2, %d over HTTP/1.1",
+                clients.length, http2Responses(), http1Responses());
+    }
+
+    // REST Assured sends every request through this method; the Apache connection machinery is never used
+    private class Client extends DefaultHttpClient {
+        @Override
+        public CloseableHttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+            return response(send(request));
+        }
+    }
+
+    // the body is already in memory, so there is no connection to release
+    private static class BufferedResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        BufferedResponse(ProtocolVersion version, int code, String reason) {
+            super(version, code, reason);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ru.gloomyana.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import io.restassured.response.ExtractableResponse;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON Schemas from {@code src/test/resources/schemas}, loaded and compiled once per JVM.
+ * {@code matchesJsonSchemaInClasspath} reads and compiles the schema again on every response; a {@link JsonSchema}
+ * here is shared by all threads and keeps its compiled validators between calls.
+ * <p>
+ * The matcher parses the body into a Jackson tree once and validates that tree; the specs use it instead of
+ * per-field path expectations, which would parse the body a second time. The thread keeps the last tree it
+ * validated, and {@link #read} maps a validated response into its model from that tree instead of parsing the
+ * body again the way {@code extract().as(...)} does.
+ */
+public class JsonSchemas {
+    private static final JsonSchemaFactory FACTORY = JsonSchemaFactory.byDefault();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<String, JsonSchema> SCHEMAS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Parsed> LAST = new ThreadLocal<>();
+
+    // relative $refs resolve against the schemas directory, so create-booking.json can point to booking.json
+    public static JsonSchema schema(String name) {
+        return SCHEMAS.computeIfAbsent(name, key -> {
+            try {
+                return FACTORY.getJsonSchema("resource:/schemas/" + key + ".json");
+            } catch (ProcessingException e) {
+                throw new IllegalArgumentException("Unable to load JSON schema " + key, e);
+            }
+        });
+    }
+
+    public static Matcher<String> matchesSchema(String name) {
+        JsonSchema schema = schema(name);
+        return new TypeSafeMatcher<>() {
+            @Override
+            protected boolean matchesSafely(String body) {
+                JsonNode tree = parse(body);
+                return tree != null && schema.validInstanceUnchecked(tree);
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a body matching the " + name + " JSON schema");
+            }
+
+            // only runs for a failed match, so validating again to collect the messages costs nothing in a passing run
+            @Override
+            protected void describeMismatchSafely(String body, Description description) {
+                JsonNode tree = parse(body);
+                if (tree == null) {
+                    description.appendText("was not JSON: ").appendValue(body);
+                    return;
+                }
+                ProcessingReport report = schema.validateUnchecked(tree);
+                description.appendText("was ").appendValue(body);
+                for (ProcessingMessage message : report) {
+                    JsonNode pointer = message.asJson().path("instance").path("pointer");
+                    description.appendText("\n  " + (pointer.asText().isEmpty() ? "/" : pointer.asText())
+                            + ": " + message.getMessage());
+                }
+            }
+        };
+    }
+
+    public static <T> T read(ExtractableResponse<?> response, Class<T> type) {
+        String body = response.asString();
+        JsonNode tree = parse(body);
+        if (tree == null) {
+            throw new IllegalArgumentException("Response body is not JSON: " + body);
+        }
+        try {
+            return MAPPER.treeToValue(tree, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map response body to " + type.getSimpleName(), e);
+        }
+    }
+
+    // the body just validated on this thread is not parsed again; any other body replaces it
+    private static JsonNode parse(String body) {
+        Parsed last = LAST.get();
+        if (last != null && last.body.equals(body)) {
+            return last.tree;
+        }
+        JsonNode tree;
+        try {
+            tree = MAPPER.readTree(body);
+        } catch (IOException e) {
+            tree = null;
+        }
+        LAST.set(new Parsed(body, tree));
+        return tree;
+    }
+
+    private static class Parsed {
+        private final String body;
+        private final JsonNode tree;
+
+        Parsed(String body, JsonNode tree) {
+            this.body = body;
+            this.tree = tree;
+        }
+    }
+}
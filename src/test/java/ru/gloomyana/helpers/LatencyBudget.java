@@ -0,0 +1,119 @@
+package ru.gloomyana.helpers;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.gloomyana.config.SloConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latency budgets from slo.properties. {@link #withinBudget()} is wired into the response specs and fails a
+ * single slow response; as a JUnit extension (registered through META-INF/services) it also checks a
+ * percentile of each endpoint over the whole test class once the class has finished.
+ */
+public class LatencyBudget implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback, AfterAllCallback {
+    private static final SloConfig CONFIG = ConfigFactory.create(SloConfig.class, System.getProperties());
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(LatencyBudget.class);
+
+    public static boolean enabled() {
+        return CONFIG.enabled();
+    }
+
+    public static long maxMillis(String endpoint) {
+        return budget("slo.maxMillis", endpoint, CONFIG.maxMillis());
+    }
+
+    public static long percentileMillis(String endpoint) {
+        return budget("slo.percentileMillis", endpoint, CONFIG.percentileMillis());
+    }
+
+    private static long budget(String key, String endpoint, long defaultMillis) {
+        if (endpoint == null) {
+            return defaultMillis;
+        }
+        String override = CONFIG.getProperty(key + "." + endpoint.replace(' ', '_'));
+        return override == null ? defaultMillis : Long.parseLong(override.trim());
+    }
+
+    // REST Assured reports "Expected response time was not <description>, was N milliseconds"; while
+    // LatencyRecorder is paused the response is not held to a budget either
+    public static Matcher<Long> withinBudget() {
+        return new TypeSafeMatcher<>() {
+            @Override
+            protected boolean matchesSafely(Long millis) {
+                return LatencyRecorder.paused() || millis <= maxMillis(LatencyRecorder.currentEndpoint());
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                String endpoint = LatencyRecorder.currentEndpoint();
+                description.appendText("within the " + maxMillis(endpoint) + " ms budget of "
+                        + (endpoint == null ? "this endpoint" : endpoint));
+            }
+        };
+    }
+
+    public static List<String> percentileViolations(LatencyRecorder recorder, String scope) {
+        List<String> violations = new ArrayList<>();
+        recorder.snapshot().forEach((endpoint, histogram) -> {
+            if (histogram.getTotalCount() < CONFIG.minSamples()) {
+                return;
+            }
+            double observed = histogram.getValueAtPercentile(CONFIG.percentile()) / 1_000_000.0;
+            long budget = percentileMillis(endpoint);
+            if (observed > budget) {
+                violations.add(String.format("%s p%s latency %.1f ms exceeds the %d ms budget over %d requests in %s",
+                        endpoint, percentileLabel(), observed, budget, histogram.getTotalCount(), scope));
+            }
+        });
+        return violations;
+    }
+
+    private static String percentileLabel() {
+        double percentile = CONFIG.percentile();
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (enabled()) {
+            context.getStore(NAMESPACE).put(LatencyRecorder.class, new LatencyRecorder());
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        LatencyRecorder recorder = context.getStore(NAMESPACE).get(LatencyRecorder.class, LatencyRecorder.class);
+        if (recorder != null) {
+            LatencyRecorder.enterScope(recorder);
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        LatencyRecorder recorder = context.getStore(NAMESPACE).get(LatencyRecorder.class, LatencyRecorder.class);
+        if (recorder != null) {
+            LatencyRecorder.exitScope(recorder);
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        LatencyRecorder recorder = context.getStore(NAMESPACE).remove(LatencyRecorder.class, LatencyRecorder.class);
+        if (recorder == null) {
+            return;
+        }
+        List<String> violations = percentileViolations(recorder, context.getRequiredTestClass().getSimpleName());
+        if (!violations.isEmpty()) {
+            throw new AssertionError(String.join("\n", violations));
+        }
+    }
+}
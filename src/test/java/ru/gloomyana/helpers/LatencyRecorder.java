@@ -0,0 +1,221 @@
+package ru.gloomyana.helpers;
+
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.MetricsConfig;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint latency histograms in nanoseconds. Recording goes through HdrHistogram {@link Recorder},
+ * which is wait-free, so it is safe on every request of a parallel run. Paths are templated
+ * ({@code /booking/123} becomes {@code /booking/{id}}) to keep one histogram per endpoint.
+ */
+public class LatencyRecorder {
+    private static final LatencyRecorder SHARED = new LatencyRecorder();
+    private static final ThreadLocal<String> CURRENT_ENDPOINT = new ThreadLocal<>();
+    // not inherited: pool threads outlive the test that started them, so scopes are handed over with inScopes
+    private static final ThreadLocal<List<LatencyRecorder>> SCOPES = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PAUSED = ThreadLocal.withInitial(() -> false);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final long startTimeMillis = System.currentTimeMillis();
+
+    static {
+        MetricsConfig config = ConfigFactory.create(MetricsConfig.class, System.getProperties());
+        if (config.enabled()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> SHARED.write(Paths.get(config.outputDir()))));
+        }
+    }
+
+    public static LatencyRecorder shared() {
+        return SHARED;
+    }
+
+    // endpoint of the last request sent by this thread, read back when its response spec is validated
+    public static String currentEndpoint() {
+        return CURRENT_ENDPOINT.get();
+    }
+
+    // requests from this thread, and from tasks it hands over with inScopes, are also recorded into the given recorder
+    public static void enterScope(LatencyRecorder recorder) {
+        List<LatencyRecorder> scopes = SCOPES.get();
+        List<LatencyRecorder> entered = new ArrayList<>(scopes == null ? List.of() : scopes);
+        entered.add(recorder);
+        SCOPES.set(List.copyOf(entered));
+    }
+
+    public static void exitScope(LatencyRecorder recorder) {
+        List<LatencyRecorder> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        List<LatencyRecorder> remaining = new ArrayList<>(scopes);
+        remaining.remove(recorder);
+        if (remaining.isEmpty()) {
+            SCOPES.remove();
+        } else {
+            SCOPES.set(List.copyOf(remaining));
+        }
+    }
+
+    public static List<LatencyRecorder> scopes() {
+        List<LatencyRecorder> scopes = SCOPES.get();
+        return scopes == null ? List.of() : scopes;
+    }
+
+    // runs the task in the given scopes, captured with scopes() by the thread that hands it to a pool
+    public static <T> Callable<T> inScopes(List<LatencyRecorder> scopes, Callable<T> task) {
+        return () -> {
+            List<LatencyRecorder> own = SCOPES.get();
+            SCOPES.set(scopes.isEmpty() ? null : scopes);
+            try {
+                return task.call();
+            } finally {
+                SCOPES.set(own);
+            }
+        };
+    }
+
+    // requests from this thread are recorded nowhere until resume(), as during a warm-up
+    public static void pause() {
+        PAUSED.set(true);
+    }
+
+    public static void resume() {
+        PAUSED.remove();
+    }
+
+    public static boolean paused() {
+        return PAUSED.get();
+    }
+
+    /**
+     * Records the time from sending the request to the last byte of the response body. Register it after the
+     * reporting filters, so they are not counted, and before {@link RateLimiter#filter()}: the time the limiter
+     * spent waiting for a token or backing off before a retry is taken out, only the sends are counted.
+     */
+    public static Filter filter() {
+        return (requestSpec, responseSpec, context) -> {
+            String endpoint = endpoint(requestSpec.getMethod(), URI.create(requestSpec.getURI()).getRawPath());
+            CURRENT_ENDPOINT.set(endpoint);
+            long start = System.nanoTime();
+            Response response = context.next(requestSpec, responseSpec);
+            response.asByteArray();
+            Long waited = context.getValue(RateLimiter.WAITED_NANOS);
+            long nanos = System.nanoTime() - start - (waited == null ? 0 : waited);
+            if (paused()) {
+                return response;
+            }
+            SHARED.record(endpoint, nanos);
+            List<LatencyRecorder> scopes = SCOPES.get();
+            if (scopes != null) {
+                for (LatencyRecorder scope : scopes) {
+                    scope.record(endpoint, nanos);
+                }
+            }
+            return response;
+        };
+    }
+
+    public static String endpoint(String method, String path) {
+        StringBuilder template = new StringBuilder(method.length() + path.length() + 4).append(method).append(' ');
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            template.append('/').append(segment.chars().allMatch(Character::isDigit) ? "{id}" : segment);
+        }
+        return template.length() == method.length() + 1 ? template.append('/').toString() : template.toString();
+    }
+
+    public void record(String endpoint, long nanos) {
+        Endpoint recorder = endpoints.get(endpoint);
+        if (recorder == null) {
+            recorder = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        }
+        recorder.recorder.recordValue(nanos);
+    }
+
+    public Histogram snapshot(String endpoint) {
+        Endpoint recorder = endpoints.get(endpoint);
+        return recorder == null ? new Histogram(3) : recorder.snapshot();
+    }
+
+    public Map<String, Histogram> snapshot() {
+        Map<String, Histogram> snapshot = new TreeMap<>();
+        endpoints.forEach((endpoint, recorder) -> snapshot.put(endpoint, recorder.snapshot()));
+        return snapshot;
+    }
+
+    // latency-summary.txt for people, latency.hlog (one tagged histogram per endpoint) for HistogramLogProcessor
+    public void write(Path directory) {
+        Map<String, Histogram> histograms = snapshot();
+        if (histograms.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve("latency-summary.txt"), summary(histograms));
+            try (PrintStream log = new PrintStream(directory.resolve("latency.hlog").toFile())) {
+                HistogramLogWriter writer = new HistogramLogWriter(log);
+                writer.outputLogFormatVersion();
+                writer.outputStartTime(startTimeMillis);
+                writer.setBaseTime(startTimeMillis);
+                writer.outputLegend();
+                long now = System.currentTimeMillis();
+                histograms.forEach((endpoint, histogram) -> {
+                    histogram.setTag(endpoint.replace(' ', '_'));
+                    histogram.setStartTimeStamp(startTimeMillis);
+                    histogram.setEndTimeStamp(now);
+                    writer.outputIntervalHistogram(histogram);
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write latency report to " + directory, e);
+        }
+    }
+
+    public static String summary(Map<String, Histogram> histograms) {
+        StringBuilder summary = new StringBuilder(String.format("%-28s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        histograms.forEach((endpoint, histogram) -> summary.append(String.format(
+                "%-28s %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint, histogram.getTotalCount(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()))));
+        return summary.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Endpoint {
+        final Recorder recorder = new Recorder(3);
+        final Histogram total = new Histogram(3);
+        Histogram interval;
+
+        synchronized Histogram snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return total.copy();
+        }
+    }
+}
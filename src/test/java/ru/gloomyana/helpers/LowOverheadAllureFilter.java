@@ -0,0 +1,74 @@
+package ru.gloomyana.helpers;
+
+import io.qameta.allure.Allure;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import ru.gloomyana.config.ReportingConfig;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replacement for {@code AllureRestAssured} in high-volume runs. A sampled fraction of calls is attached
+ * right away; in {@code failures} mode the rest are kept per test (last {@code maxBufferedPerTest})
+ * and attached by {@link FailedRequestAttachments} only if the test fails.
+ */
+public class LowOverheadAllureFilter implements Filter {
+    private static final Map<String, Deque<CapturedExchange>> BUFFERS = new ConcurrentHashMap<>();
+
+    private final boolean keepForFailures;
+    private final double sampleRate;
+    private final int maxBodyChars, maxBuffered;
+    private final AttachmentWriter writer;
+
+    LowOverheadAllureFilter(ReportingConfig config, AttachmentWriter writer) {
+        this.keepForFailures = config.mode().equalsIgnoreCase("failures");
+        this.sampleRate = config.sampleRate();
+        this.maxBodyChars = config.maxBodyChars();
+        this.maxBuffered = config.maxBufferedPerTest();
+        this.writer = writer;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext context) {
+        Response response = context.next(requestSpec, responseSpec);
+        Optional<String> testCase = Allure.getLifecycle().getCurrentTestCase();
+        if (testCase.isEmpty()) {
+            return response;
+        }
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (sampled) {
+            writer.attach(new CapturedExchange(requestSpec, response, maxBodyChars));
+        } else if (keepForFailures) {
+            Deque<CapturedExchange> buffer = BUFFERS.computeIfAbsent(testCase.get(), key -> new ArrayDeque<>());
+            CapturedExchange exchange = new CapturedExchange(requestSpec, response, maxBodyChars);
+            synchronized (buffer) {
+                if (buffer.size() == maxBuffered) {
+                    buffer.removeFirst();
+                }
+                buffer.addLast(exchange);
+            }
+        }
+        return response;
+    }
+
+    static List<CapturedExchange> drain(String testCase) {
+        Deque<CapturedExchange> buffer = BUFFERS.remove(testCase);
+        if (buffer == null) {
+            return Collections.emptyList();
+        }
+        synchronized (buffer) {
+            return List.copyOf(buffer);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.gloomyana.helpers;
+
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.MetricsConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Run reports written next to the latency summary, in {@code metrics.outputDir}, instead of to the console.
+ * Nothing is written with {@code metrics.enabled=false}.
+ */
+public class MetricsFiles {
+    private static final MetricsConfig CONFIG = ConfigFactory.create(MetricsConfig.class, System.getProperties());
+
+    public static void write(String name, Object report) {
+        write(name, report, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    public static void append(String name, Object report) {
+        write(name, report, StandardOpenOption.APPEND);
+    }
+
+    private static void write(String name, Object report, StandardOpenOption mode) {
+        if (!CONFIG.enabled()) {
+            return;
+        }
+        Path directory = Paths.get(CONFIG.outputDir());
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve(name), report + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write " + name + " to " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ru.gloomyana.helpers;
+
+import io.restassured.filter.Filter;
+import io.restassured.internal.filter.SendRequestFilter;
+import io.restassured.response.Response;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.RateLimitConfig;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side send rate per server, shared by every thread. Sends are spaced by a token bucket of
+ * {@code rateLimit.burst} requests; the rate grows while responses succeed and is cut by
+ * {@code rateLimit.multiplicativeDecrease} on 429 or 503 (AIMD). Until the first cut it grows
+ * exponentially, like TCP slow start, so it finds the server's limit quickly.
+ * <p>
+ * {@link #filter()} retries throttled requests up to {@code rateLimit.maxRetries} times with full-jitter
+ * exponential backoff. {@code Retry-After} pauses the whole bucket, not only the thread that got it.
+ * A response that is still throttled after the last retry is returned as is.
+ * <p>
+ * Off unless {@code rateLimit.enabled} is set: load runs and traffic replays measure the server, so they must not
+ * be paced by it without asking.
+ */
+public class RateLimiter {
+    private static final RateLimitConfig CONFIG = ConfigFactory.create(RateLimitConfig.class, System.getProperties());
+    private static final Map<String, RateLimiter> LIMITERS = new ConcurrentHashMap<>();
+    // REST Assured's own last filter, internal API; it keeps no state, so calling it again repeats only the send
+    private static final Filter SEND = new SendRequestFilter();
+
+    // filter context value: nanoseconds the request spent waiting for a token or backing off, so far
+    public static final String WAITED_NANOS = "rateLimiter.waitedNanos";
+
+    private final RateLimitConfig config;
+    private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+    private final AtomicLong lastDecrease = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder throttled = new LongAdder(), retries = new LongAdder(), waitedNanos = new LongAdder();
+    private volatile double rate;
+    private volatile boolean slowStart = true;
+
+    public RateLimiter(RateLimitConfig config) {
+        this.config = config;
+        this.rate = config.initialRate();
+    }
+
+    public static RateLimiter forBaseUrl(String baseUrl) {
+        return forBaseUrl(baseUrl, CONFIG);
+    }
+
+    // the config only applies to the first limiter of a server
+    public static RateLimiter forBaseUrl(String baseUrl, RateLimitConfig config) {
+        URI uri = URI.create(baseUrl);
+        return LIMITERS.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(), origin -> new RateLimiter(config));
+    }
+
+    public static Filter filter() {
+        return filter(CONFIG);
+    }
+
+    /**
+     * Must be the last filter of a spec: REST Assured walks the chain with a single iterator, so a retry can only
+     * repeat the final send step ({@link SendRequestFilter}), not the filters before this one. Those filters,
+     * request logging included, see a request once however often it was retried.
+     */
+    public static Filter filter(RateLimitConfig config) {
+        return (requestSpec, responseSpec, context) -> {
+            if (!config.enabled()) {
+                return context.next(requestSpec, responseSpec);
+            }
+            RateLimiter limiter = forBaseUrl(requestSpec.getURI(), config);
+            long waited = 0;
+            for (int attempt = 0; ; attempt++) {
+                long queuedAt = System.nanoTime();
+                long sentAt = limiter.acquire();
+                waited += sentAt - queuedAt;
+                context.setValue(WAITED_NANOS, waited);
+                Response response = attempt == 0
+                        ? context.next(requestSpec, responseSpec)
+                        : SEND.filter(requestSpec, responseSpec, context);
+                if (!isThrottled(response.statusCode())) {
+                    limiter.onSuccess();
+                    return response;
+                }
+                limiter.onThrottled(sentAt, retryAfter(response.header("Retry-After")));
+                if (attempt >= limiter.config.maxRetries()) {
+                    return response;
+                }
+                response.asByteArray();
+                limiter.retries.increment();
+                long backoffStart = System.nanoTime();
+                sleep(limiter.backoff(attempt));
+                waited += System.nanoTime() - backoffStart;
+            }
+        };
+    }
+
+    static boolean isThrottled(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    // delta-seconds or an HTTP date; zero when absent or unparseable
+    public static Duration retryAfter(String header) {
+        if (header == null || header.isBlank()) {
+            return Duration.ZERO;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(header.trim())));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                Duration until = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (DateTimeParseException notDate) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    // blocks until the bucket has a token and returns the send time
+    public long acquire() {
+        long interval = (long) (1_000_000_000L / rate);
+        long burstAllowance = interval * config.burst();
+        while (true) {
+            long now = System.nanoTime();
+            long current = nextSlot.get();
+            long slot = Math.max(current, now - burstAllowance);
+            if (nextSlot.compareAndSet(current, slot + interval)) {
+                if (slot > now) {
+                    waitedNanos.add(slot - now);
+                    sleep(slot - now);
+                    return System.nanoTime();
+                }
+                return now;
+            }
+        }
+    }
+
+    public void onSuccess() {
+        double current = rate;
+        double increased = slowStart ? current + 1 : current + config.additiveIncrease() / current;
+        rate = Math.min(config.maxRate(), increased);
+    }
+
+    // only the first signal from requests sent after the previous cut lowers the rate again
+    public void onThrottled(long sentAt, Duration retryAfter) {
+        throttled.increment();
+        long now = System.nanoTime();
+        if (!retryAfter.isZero()) {
+            nextSlot.accumulateAndGet(now + retryAfter.toNanos(), Math::max);
+        }
+        long previous = lastDecrease.get();
+        if (sentAt > previous && lastDecrease.compareAndSet(previous, now)) {
+            slowStart = false;
+            rate = Math.max(config.minRate(), rate * config.multiplicativeDecrease());
+        }
+    }
+
+    long backoff(int attempt) {
+        long ceiling = Math.min(config.maxBackoffMillis(), config.baseBackoffMillis() << Math.min(attempt, 20));
+        return TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the rate limiter", e);
+        }
+    }
+
+    public double rate() {
+        return rate;
+    }
+
+    public long throttled() {
+        return throttled.sum();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    // spent waiting for a token, Retry-After pauses included; backoff sleeps come on top
+    public long waitedNanos() {
+        return waitedNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Rate limiter: %.1f req/s, %d throttled, %d retries, waited %d ms",
+                rate, throttled(), retries(), TimeUnit.NANOSECONDS.toMillis(waitedNanos()));
+    }
+}
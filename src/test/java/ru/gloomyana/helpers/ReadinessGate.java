@@ -0,0 +1,49 @@
+package ru.gloomyana.helpers;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.gloomyana.config.ReadinessConfig;
+import ru.gloomyana.specs.RestfulBookerSpec;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Health gate for the "api" test classes, registered through META-INF/services. Replaces a GET /ping in every
+ * class's @BeforeAll: the target is probed through {@link ReadinessProbe#shared()}, whose cached result all
+ * classes share. If it is down, the first class to notice fails once with the probe's reason and every other
+ * api class is skipped instead of waiting for its own timeouts.
+ */
+public class ReadinessGate implements ExecutionCondition, BeforeAllCallback {
+    private static final ReadinessConfig CONFIG = ConfigFactory.create(ReadinessConfig.class, System.getProperties());
+    private static final AtomicBoolean REPORTED = new AtomicBoolean();
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!gated(context) || context.getTestMethod().isPresent()) {
+            return ConditionEvaluationResult.enabled("Not gated on readiness");
+        }
+        ReadinessProbe.Readiness readiness = ReadinessProbe.shared().check(RestfulBookerSpec.baseUrl());
+        if (readiness.ready() || REPORTED.compareAndSet(false, true)) {
+            return ConditionEvaluationResult.enabled(readiness.toString());
+        }
+        return ConditionEvaluationResult.disabled(readiness.toString());
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!gated(context)) {
+            return;
+        }
+        ReadinessProbe.Readiness readiness = ReadinessProbe.shared().check(RestfulBookerSpec.baseUrl());
+        if (!readiness.ready()) {
+            throw new IllegalStateException(readiness + "; skipping the remaining api tests");
+        }
+    }
+
+    private static boolean gated(ExtensionContext context) {
+        return CONFIG.enabled() && context.getTags().contains("api");
+    }
+}
@@ -0,0 +1,138 @@
+package ru.gloomyana.helpers;
+
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.ReadinessConfig;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Whether a restful-booker instance answers GET /ping, cached per base URL for {@code readiness.ttlSeconds}.
+ * A probe gives up after {@code readiness.attempts} tries of at most {@code readiness.timeoutMillis} each, so a
+ * target that is down is reported within seconds instead of after the socket timeout. Threads that ask while
+ * a probe is running wait for that probe rather than starting their own.
+ */
+public class ReadinessProbe {
+    private static final ReadinessConfig CONFIG = ConfigFactory.create(ReadinessConfig.class, System.getProperties());
+    private static final ReadinessProbe SHARED = new ReadinessProbe(Duration.ofMillis(CONFIG.timeoutMillis()),
+            CONFIG.attempts(), Duration.ofMillis(CONFIG.backoffMillis()), Duration.ofSeconds(CONFIG.ttlSeconds()));
+
+    private final HttpClient client;
+    private final Duration timeout, backoff;
+    private final int attempts;
+    private final long ttlNanos;
+    private final Map<String, CompletableFuture<Readiness>> results = new ConcurrentHashMap<>();
+    private final LongAdder probes = new LongAdder();
+
+    public ReadinessProbe(Duration timeout, int attempts, Duration backoff, Duration ttl) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.timeout = timeout;
+        this.attempts = attempts;
+        this.backoff = backoff;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public static ReadinessProbe shared() {
+        return SHARED;
+    }
+
+    public Readiness check(String baseUrl) {
+        while (true) {
+            CompletableFuture<Readiness> cached = results.get(baseUrl);
+            if (cached != null && (!cached.isDone() || System.nanoTime() - cached.join().expiresAt < 0)) {
+                return cached.join();
+            }
+            CompletableFuture<Readiness> probe = new CompletableFuture<>();
+            boolean owner = cached == null ? results.putIfAbsent(baseUrl, probe) == null
+                    : results.replace(baseUrl, cached, probe);
+            if (owner) {
+                long start = System.nanoTime();
+                try {
+                    probe.complete(probe(baseUrl));
+                } catch (RuntimeException e) {
+                    probe.complete(new Readiness(baseUrl, false, "probe failed: " + e, start));
+                } finally {
+                    // threads waiting on this probe must not block forever, whatever it threw
+                    probe.completeExceptionally(new IllegalStateException("Probe of " + baseUrl + " did not finish"));
+                }
+                return probe.join();
+            }
+        }
+    }
+
+    private Readiness probe(String baseUrl) {
+        probes.increment();
+        long start = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/ping")).timeout(timeout).GET().build();
+        String failure = null;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 == 2) {
+                    return new Readiness(baseUrl, true, "GET /ping returned " + response.statusCode(), start);
+                }
+                failure = "GET /ping returned " + response.statusCode();
+            } catch (IOException e) {
+                failure = "GET /ping failed: " + e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Readiness(baseUrl, false, "interrupted while probing", start);
+            }
+            if (attempt < attempts) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoff.toMillis() << (attempt - 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new Readiness(baseUrl, false, "interrupted while probing", start);
+                }
+            }
+        }
+        return new Readiness(baseUrl, false, failure + " after " + attempts + " attempts", start);
+    }
+
+    public long probes() {
+        return probes.sum();
+    }
+
+    public class Readiness {
+        private final String baseUrl, detail;
+        private final boolean ready;
+        private final Duration elapsed;
+        private final long expiresAt;
+
+        Readiness(String baseUrl, boolean ready, String detail, long startNanos) {
+            long now = System.nanoTime();
+            this.baseUrl = baseUrl;
+            this.ready = ready;
+            this.detail = detail;
+            this.elapsed = Duration.ofNanos(now - startNanos);
+            this.expiresAt = now + ttlNanos;
+        }
+
+        public boolean ready() {
+            return ready;
+        }
+
+        public Duration elapsed() {
+            return elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s is %s: %s (probed in %d ms)",
+                    baseUrl, ready ? "ready" : "not ready", detail, elapsed.toMillis());
+        }
+    }
+}
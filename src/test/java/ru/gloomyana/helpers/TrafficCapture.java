@@ -0,0 +1,239 @@
+package ru.gloomyana.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.CaptureConfig;
+import ru.gloomyana.models.TrafficRecordModel;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Appends every request and its response to a JSONL log that {@link ru.gloomyana.load.TrafficReplayer} can
+ * send again later. The filter only builds the record and offers it to a bounded queue; a single daemon thread
+ * serializes and writes. When the queue is full the record is dropped and counted, so the caller never waits.
+ * <p>
+ * Credentials stay out of the log: the POST /auth body and the Authorization header are left out, and every token
+ * is written as a stand-in such as {@code masked-token-1}. The replayer logs in to its target with its own
+ * credentials and sends the token it gets back wherever the stand-in appears.
+ */
+public class TrafficCapture implements Closeable {
+    private static final CaptureConfig CONFIG = ConfigFactory.create(CaptureConfig.class, System.getProperties());
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter WRITER = MAPPER.writerFor(TrafficRecordModel.class);
+    private static final TrafficRecordModel END = TrafficRecordModel.builder().build();
+    private static volatile TrafficCapture shared;
+
+    private final Path file;
+    private final int maxBodyChars;
+    private final BlockingQueue<TrafficRecordModel> queue;
+    private final Thread writer;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder written = new LongAdder(), dropped = new LongAdder();
+    private final Map<String, String> maskedTokens = new ConcurrentHashMap<>();
+    private final AtomicInteger tokens = new AtomicInteger();
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    public TrafficCapture(Path file, int queueCapacity, int maxBodyChars) {
+        this.file = file;
+        this.maxBodyChars = maxBodyChars;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create traffic capture " + file, e);
+        }
+        writer = new Thread(this::drain, "traffic-capture-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // the capture configured by capture.file, opened on first use and closed on shutdown
+    public static TrafficCapture shared() {
+        TrafficCapture capture = shared;
+        if (capture == null) {
+            synchronized (TrafficCapture.class) {
+                capture = shared;
+                if (capture == null) {
+                    capture = new TrafficCapture(Paths.get(CONFIG.file()), CONFIG.queueCapacity(), CONFIG.maxBodyChars());
+                    Runtime.getRuntime().addShutdownHook(new Thread(capture::close));
+                    shared = capture;
+                }
+            }
+        }
+        return capture;
+    }
+
+    // records into the shared capture when capture.enabled is set; register it before RateLimiter.filter()
+    public static Filter filter() {
+        return (requestSpec, responseSpec, context) -> CONFIG.enabled()
+                ? shared().record(requestSpec, responseSpec, context)
+                : context.next(requestSpec, responseSpec);
+    }
+
+    public Filter asFilter() {
+        return this::record;
+    }
+
+    // latency runs from the send to the last byte of the body less the rate limiter's waits, as LatencyRecorder's
+    private Response record(FilterableRequestSpecification request, FilterableResponseSpecification responseSpec,
+                            FilterContext context) {
+        long sentAt = System.nanoTime();
+        Response response = context.next(request, responseSpec);
+        String responseBody = response.asString();
+        Long waited = context.getValue(RateLimiter.WAITED_NANOS);
+        long latency = System.nanoTime() - sentAt - (waited == null ? 0 : waited);
+
+        URI uri = URI.create(request.getURI());
+        boolean auth = "POST /auth".equals(LatencyRecorder.endpoint(request.getMethod(), uri.getRawPath()));
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Header header : request.getHeaders()) {
+            if (header.getName().equalsIgnoreCase("Authorization")) {
+                continue;
+            }
+            String value = header.getName().equalsIgnoreCase("Cookie")
+                    ? maskCookie(header.getValue())
+                    : header.getValue();
+            headers.merge(header.getName(), value, (first, second) -> first + ", " + second);
+        }
+        if (request.getContentType() != null) {
+            headers.putIfAbsent("Content-Type", request.getContentType());
+        }
+        add(TrafficRecordModel.builder()
+                .offsetMicros(TimeUnit.NANOSECONDS.toMicros(sentAt - startNanos))
+                .method(request.getMethod())
+                .path(uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery())
+                .requestHeaders(headers)
+                .requestBody(auth || request.getBody() == null
+                        ? null
+                        : truncate(String.valueOf((Object) request.getBody())))
+                .status(response.statusCode())
+                .responseBody(truncate(auth ? maskToken(responseBody) : responseBody))
+                .latencyMicros(TimeUnit.NANOSECONDS.toMicros(latency))
+                .build());
+        return response;
+    }
+
+    private String maskCookie(String cookie) {
+        return Arrays.stream(cookie.split(";"))
+                .map(String::trim)
+                .map(pair -> pair.startsWith("token=") ? "token=" + masked(pair.substring("token=".length())) : pair)
+                .collect(Collectors.joining("; "));
+    }
+
+    private String maskToken(String body) {
+        try {
+            JsonNode token = body.isEmpty() ? null : MAPPER.readTree(body).get("token");
+            return token == null || !token.isTextual() ? body : body.replace(token.asText(), masked(token.asText()));
+        } catch (IOException e) {
+            return body;
+        }
+    }
+
+    // the same token gets the same stand-in, so the replayer can tell which login a call used
+    private String masked(String token) {
+        return maskedTokens.computeIfAbsent(token, value -> "masked-token-" + tokens.incrementAndGet());
+    }
+
+    private String truncate(String body) {
+        return body == null || body.length() <= maxBodyChars ? body : body.substring(0, maxBodyChars);
+    }
+
+    public void add(TrafficRecordModel record) {
+        if (closed || !queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        List<TrafficRecordModel> batch = new ArrayList<>();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (TrafficRecordModel record : batch) {
+                    if (record == END) {
+                        return;
+                    }
+                    out.write(WRITER.writeValueAsString(record));
+                    out.write('\n');
+                    written.increment();
+                }
+                batch.clear();
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // writes out everything offered so far; records added afterwards are dropped
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.offer(END, 30, TimeUnit.SECONDS);
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Unable to write traffic capture " + file, failure);
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public long written() {
+        return written.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Traffic capture %s: %d written, %d dropped", file, written(), dropped());
+    }
+}
@@ -0,0 +1,171 @@
+package ru.gloomyana.helpers;
+
+import io.restassured.specification.RequestSpecification;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import ru.gloomyana.config.AuthConfig;
+import ru.gloomyana.config.WarmUpConfig;
+import ru.gloomyana.data.TestData;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.models.BookingRequestModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+import ru.gloomyana.specs.RestfulBookerSpec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static ru.gloomyana.helpers.ApiHelpers.*;
+import static ru.gloomyana.specs.RestfulBookerSpec.baseRequestSpec;
+import static ru.gloomyana.specs.RestfulBookerSpec.bookingIdsResponseSpec;
+
+/**
+ * Warm-up for the "api" test classes, a JUnit Platform listener registered through META-INF/services. When the
+ * test plan starts, before any class runs and so with nothing else sending, every {@link ApiHelpers} call and every
+ * response spec is sent in rounds until the round time settles: the median of the last {@code warmup.window}
+ * rounds is within {@code warmup.tolerance} of the median of the window before, or {@code warmup.maxRounds} or
+ * {@code warmup.maxSeconds} run out: 10 rounds against a remote target and 40 rounds or 10 s against the embedded
+ * server unless set. A target that is not ready is left to {@link ReadinessGate} to report.
+ * <p>
+ * Its requests are left out of {@link LatencyRecorder} and the latency budgets, and the time it took is reported
+ * as the startup cost in startup-cost.txt next to the latency summary.
+ */
+public class WarmUp implements TestExecutionListener {
+    // a remote target gets a few rounds; an in-process server settles within seconds and costs nobody anything
+    private static final WarmUpConfig CONFIG = ConfigFactory.create(WarmUpConfig.class, System.getProperties(),
+            EmbeddedBookerServer.selected() ? Map.of("warmup.maxSeconds", "10", "warmup.maxRounds", "40") : Map.of());
+    private static final TestTag API = TestTag.create("api");
+    private static Result shared;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        boolean api = testPlan.getRoots().stream()
+                .flatMap(root -> testPlan.getDescendants(root).stream())
+                .anyMatch(test -> test.getTags().contains(API));
+        if (CONFIG.enabled() && api && ReadinessProbe.shared().check(RestfulBookerSpec.baseUrl()).ready()) {
+            shared();
+        }
+    }
+
+    public static synchronized Result shared() {
+        if (shared == null) {
+            AuthConfig auth = ConfigFactory.create(AuthConfig.class, System.getProperties());
+            shared = run(baseRequestSpec, new AuthRequestModel(auth.username(), auth.password()), CONFIG);
+            MetricsFiles.write("startup-cost.txt", shared);
+        }
+        return shared;
+    }
+
+    public static Result run(RequestSpecification spec, AuthRequestModel credentials, WarmUpConfig config) {
+        List<Long> rounds = new ArrayList<>();
+        int failed = 0;
+        TestData testData = new TestData();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(config.maxSeconds());
+        LatencyRecorder.pause();
+        try {
+            while (rounds.size() + failed < config.maxRounds() && System.nanoTime() < deadline
+                    && !stable(rounds, config.window(), config.tolerance())) {
+                long roundStart = System.nanoTime();
+                try {
+                    round(spec, credentials, testData.createBookingRequestModel());
+                    rounds.add(System.nanoTime() - roundStart);
+                } catch (RuntimeException | AssertionError e) {
+                    failed++;
+                }
+            }
+        } finally {
+            LatencyRecorder.resume();
+        }
+        return new Result(rounds, failed, stable(rounds, config.window(), config.tolerance()),
+                rounds.isEmpty() ? 0 : median(rounds.subList(Math.max(0, rounds.size() - config.window()),
+                        rounds.size())), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    // the booking is deleted however the round ends, so a failed round leaves nothing behind on the target
+    private static void round(RequestSpecification spec, AuthRequestModel credentials, BookingRequestModel booking) {
+        String token = createToken(spec, credentials).getToken();
+        int id = createBooking(spec, booking, token).getBookingId();
+        try {
+            getBooking(spec, id);
+            updateBooking(spec, booking, token, id);
+            partialUpdateBooking(spec, Map.of("firstname", booking.getFirstname()), token, id);
+            given(spec)
+                    .queryParam("firstname", booking.getFirstname())
+                    .when()
+                    .get("/booking")
+                    .then()
+                    .statusCode(200)
+                    .spec(bookingIdsResponseSpec);
+        } finally {
+            deleteBooking(spec, token, id);
+        }
+    }
+
+    private static boolean stable(List<Long> rounds, int window, double tolerance) {
+        int size = rounds.size();
+        if (size < 2 * window) {
+            return false;
+        }
+        double previous = median(rounds.subList(size - 2 * window, size - window));
+        double current = median(rounds.subList(size - window, size));
+        return Math.abs(current - previous) <= tolerance * previous;
+    }
+
+    private static double median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        sorted.sort(null);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2.0;
+    }
+
+    public static class Result {
+        private final int rounds, failed;
+        private final boolean stable;
+        private final double roundNanos;
+        private final Duration elapsed;
+
+        Result(List<Long> rounds, int failed, boolean stable, double roundNanos, Duration elapsed) {
+            this.rounds = rounds.size();
+            this.failed = failed;
+            this.stable = stable;
+            this.roundNanos = roundNanos;
+            this.elapsed = elapsed;
+        }
+
+        // rounds that went through, not counting the failed ones
+        public int rounds() {
+            return rounds;
+        }
+
+        public int failed() {
+            return failed;
+        }
+
+        public boolean stable() {
+            return stable;
+        }
+
+        // median of the last window of rounds, in milliseconds
+        public double roundMillis() {
+            return roundNanos / 1_000_000.0;
+        }
+
+        // the startup cost
+        public Duration elapsed() {
+            return elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("startup cost: %.1f s warming up over %d rounds (%d failed), %s at %.1f ms a round",
+                    elapsed.toNanos() / 1_000_000_000.0, rounds + failed, failed,
+                    stable ? "stable" : "not yet stable", roundMillis());
+        }
+    }
+}
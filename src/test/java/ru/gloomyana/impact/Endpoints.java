@@ -0,0 +1,14 @@
+package ru.gloomyana.impact;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// endpoints a test class, test method or ApiHelpers method exercises, e.g. "PUT /booking/{id}";
+// TestImpact adds up the annotations of a test method and of every class above it
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Endpoints {
+    String[] value();
+}
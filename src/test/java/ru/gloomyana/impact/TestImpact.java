@@ -0,0 +1,200 @@
+package ru.gloomyana.impact;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.gloomyana.config.ImpactConfig;
+import ru.gloomyana.helpers.ApiHelpers;
+import ru.gloomyana.helpers.LatencyRecorder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Test-impact selection, registered through META-INF/services. With {@code impact.changed} set to a comma-separated
+ * list of endpoints ({@code PUT /booking/{id}}, or {@code /booking/{id}} for every method) and ApiHelpers method
+ * names ({@code updateBooking}), only tests that exercise one of them run, plus tests marked {@link Smoke}.
+ * <p>
+ * A test's endpoints come from {@link Endpoints} on the method and its class hierarchy. Tests without the
+ * annotation fall back to the endpoints recorded for them by a previous run with {@code impact.record=true}, which
+ * writes {@code impact.file}; tests found in neither always run.
+ */
+public class TestImpact implements ExecutionCondition, BeforeEachCallback, AfterEachCallback {
+    private static final ImpactConfig CONFIG = ConfigFactory.create(ImpactConfig.class, System.getProperties());
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TestImpact.class);
+    private static final Map<String, Set<String>> RECORDED = load(Paths.get(CONFIG.file()));
+    private static final Map<String, Set<String>> OBSERVED = new ConcurrentSkipListMap<>();
+
+    static {
+        if (CONFIG.record()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> write(Paths.get(CONFIG.file()), OBSERVED)));
+        }
+    }
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        Set<String> changed = changed(CONFIG.changed());
+        if (changed.isEmpty() || context.getTestClass().isEmpty()) {
+            return ConditionEvaluationResult.enabled("No changed endpoints given");
+        }
+        Class<?> testClass = context.getRequiredTestClass();
+        if (context.getTestMethod().isPresent()) {
+            Method method = context.getRequiredTestMethod();
+            return selected(testClass, method, changed)
+                    ? ConditionEvaluationResult.enabled("Affected by " + changed)
+                    : ConditionEvaluationResult.disabled("Not affected by " + changed);
+        }
+        // skipping a whole class also skips its @BeforeAll setup
+        boolean anySelected = Arrays.stream(testClass.getMethods())
+                .filter(method -> method.isAnnotationPresent(Test.class))
+                .anyMatch(method -> selected(testClass, method, changed));
+        return anySelected
+                ? ConditionEvaluationResult.enabled("Has tests affected by " + changed)
+                : ConditionEvaluationResult.disabled("No test affected by " + changed);
+    }
+
+    public static boolean selected(Class<?> testClass, Method method, Set<String> changed) {
+        if (method.isAnnotationPresent(Smoke.class) || testClass.isAnnotationPresent(Smoke.class)) {
+            return true;
+        }
+        return endpoints(testClass, method)
+                .map(endpoints -> endpoints.stream().anyMatch(endpoint -> affects(changed, endpoint)))
+                .orElse(true);
+    }
+
+    public static Optional<Set<String>> endpoints(Class<?> testClass, Method method) {
+        Set<String> declared = new TreeSet<>(declared(method));
+        for (Class<?> type = testClass; type != null; type = type.getSuperclass()) {
+            declared.addAll(declared(type));
+        }
+        if (!declared.isEmpty()) {
+            return Optional.of(declared);
+        }
+        return Optional.ofNullable(RECORDED.get(id(testClass, method)));
+    }
+
+    private static Set<String> declared(AnnotatedElement element) {
+        Endpoints endpoints = element.getDeclaredAnnotation(Endpoints.class);
+        return endpoints == null ? Set.of() : Arrays.stream(endpoints.value()).map(TestImpact::normalize)
+                .collect(Collectors.toSet());
+    }
+
+    // endpoints as LatencyRecorder names them; a path without a method is kept as "* /path"
+    public static Set<String> changed(String list) {
+        Set<String> changed = new TreeSet<>();
+        for (String entry : list.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.contains("/")) {
+                changed.add(normalize(trimmed));
+                continue;
+            }
+            Set<String> helperEndpoints = Arrays.stream(ApiHelpers.class.getMethods())
+                    .filter(method -> method.getName().equals(trimmed.replaceFirst("^ApiHelpers\\.", "")))
+                    .flatMap(method -> declared(method).stream())
+                    .collect(Collectors.toSet());
+            if (helperEndpoints.isEmpty()) {
+                throw new ExtensionConfigurationException("impact.changed: " + trimmed
+                        + " is neither an endpoint nor an ApiHelpers method with @Endpoints");
+            }
+            changed.addAll(helperEndpoints);
+        }
+        return changed;
+    }
+
+    private static String normalize(String endpoint) {
+        String[] parts = endpoint.trim().split("\\s+", 2);
+        return parts.length == 1
+                ? LatencyRecorder.endpoint("*", parts[0])
+                : LatencyRecorder.endpoint(parts[0].toUpperCase(), parts[1]);
+    }
+
+    private static boolean affects(Set<String> changed, String endpoint) {
+        String path = endpoint.substring(endpoint.indexOf(' '));
+        return changed.contains(endpoint) || changed.contains("*" + path)
+                || endpoint.startsWith("* ") && changed.stream().anyMatch(entry -> entry.endsWith(path));
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (CONFIG.record()) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            context.getStore(NAMESPACE).put(LatencyRecorder.class, recorder);
+            LatencyRecorder.enterScope(recorder);
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        LatencyRecorder recorder = context.getStore(NAMESPACE).remove(LatencyRecorder.class, LatencyRecorder.class);
+        if (recorder != null) {
+            LatencyRecorder.exitScope(recorder);
+            OBSERVED.put(id(context.getRequiredTestClass(), context.getRequiredTestMethod()),
+                    new TreeSet<>(recorder.snapshot().keySet()));
+        }
+    }
+
+    private static String id(Class<?> testClass, Method method) {
+        return testClass.getName() + "#" + method.getName();
+    }
+
+    static Map<String, Set<String>> load(Path file) {
+        Map<String, Set<String>> recorded = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            return recorded;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read test impact map " + file, e);
+        }
+        properties.forEach((test, endpoints) -> recorded.put((String) test, Arrays.stream(((String) endpoints).split(","))
+                .map(String::trim)
+                .filter(endpoint -> !endpoint.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new))));
+        return recorded;
+    }
+
+    // merges into the existing map, so recording a partial run keeps the entries of tests that did not run
+    static void write(Path file, Map<String, Set<String>> observed) {
+        Map<String, Set<String>> merged = new ConcurrentSkipListMap<>(load(file));
+        merged.putAll(observed);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                writer.write("# endpoints each test exercised, recorded with -Dimpact.record=true\n");
+                for (Map.Entry<String, Set<String>> entry : merged.entrySet()) {
+                    writer.write(entry.getKey() + "=" + String.join(",", entry.getValue()) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write test impact map " + file, e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.gloomyana.load;
+
+public enum LoadOperation {
+    AUTH("POST /auth", false),
+    CREATE("POST /booking", false),
+    UPDATE("PUT /booking/{id}", true),
+    GET("GET /booking/{id}", true),
+    DELETE("DELETE /booking/{id}", true);
+
+    private final String endpoint;
+    private final boolean needsBooking;
+
+    LoadOperation(String endpoint, boolean needsBooking) {
+        this.endpoint = endpoint;
+        this.needsBooking = needsBooking;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public boolean needsBooking() {
+        return needsBooking;
+    }
+}
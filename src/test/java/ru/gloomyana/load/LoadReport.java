@@ -0,0 +1,137 @@
+package ru.gloomyana.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<LoadOperation, Histogram> latencies;
+    private final Map<LoadOperation, Long> errors;
+    private final Duration elapsed;
+    private final double targetRate, achievedRate;
+    private final long dropped, late;
+    private final Duration maxLateness;
+    private final int maxBacklog;
+
+    LoadReport(Map<LoadOperation, Histogram> latencies, Map<LoadOperation, Long> errors, Duration elapsed) {
+        this(latencies, errors, elapsed, 0, 0, 0, 0, Duration.ZERO, 0);
+    }
+
+    LoadReport(Map<LoadOperation, Histogram> latencies, Map<LoadOperation, Long> errors, Duration elapsed,
+               double targetRate, double achievedRate, long dropped, long late, Duration maxLateness,
+               int maxBacklog) {
+        this.latencies = new EnumMap<>(latencies);
+        this.errors = new EnumMap<>(errors);
+        this.elapsed = elapsed;
+        this.targetRate = targetRate;
+        this.achievedRate = achievedRate;
+        this.dropped = dropped;
+        this.late = late;
+        this.maxLateness = maxLateness;
+        this.maxBacklog = maxBacklog;
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public long requests(LoadOperation operation) {
+        return latencies(operation).getTotalCount() + errors(operation);
+    }
+
+    public long totalRequests() {
+        return latencies.keySet().stream().mapToLong(this::requests).sum();
+    }
+
+    public long errors(LoadOperation operation) {
+        return errors.getOrDefault(operation, 0L);
+    }
+
+    public long totalErrors() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public double throughput(LoadOperation operation) {
+        return requests(operation) / seconds();
+    }
+
+    public double totalThroughput() {
+        return totalRequests() / seconds();
+    }
+
+    // requests per second the open loop was asked for; 0 for a closed loop
+    public double targetRate() {
+        return targetRate;
+    }
+
+    public double achievedRate() {
+        return achievedRate;
+    }
+
+    // due while the backlog was full and never sent
+    public long dropped() {
+        return dropped;
+    }
+
+    // sent more than 10 ms after they were due
+    public long late() {
+        return late;
+    }
+
+    public Duration maxLateness() {
+        return maxLateness;
+    }
+
+    // requests due but not yet sent, at the most
+    public int maxBacklog() {
+        return maxBacklog;
+    }
+
+    // Latency of successful calls only, in milliseconds; from the due time in an open loop
+    public double percentile(LoadOperation operation, double percentile) {
+        return latencies(operation).getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    public Histogram histogram(LoadOperation operation) {
+        return latencies(operation).copy();
+    }
+
+    // an operation left out of the mix was never run: no requests, an empty histogram and 0 ms at every percentile
+    private Histogram latencies(LoadOperation operation) {
+        Histogram histogram = latencies.get(operation);
+        return histogram == null ? new Histogram(3) : histogram;
+    }
+
+    private double seconds() {
+        return Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format("%-22s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms"));
+        for (LoadOperation operation : latencies.keySet()) {
+            if (requests(operation) == 0) {
+                continue;
+            }
+            report.append(String.format("%-22s %9d %7d %10.1f", operation.endpoint(),
+                    requests(operation), errors(operation), throughput(operation)));
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(" %9.2f", percentile(operation, percentile)));
+            }
+            report.append(System.lineSeparator());
+        }
+        report.append(String.format("total: %d requests, %d errors in %.1f s, %.1f req/s%n",
+                totalRequests(), totalErrors(), seconds(), totalThroughput()));
+        if (targetRate > 0) {
+            report.append(String.format("open loop: %.1f req/s target, %.1f achieved, %d dropped, %d late "
+                            + "(max %d ms), backlog up to %d%n",
+                    targetRate, achievedRate, dropped, late, maxLateness.toMillis(), maxBacklog));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,325 @@
+package ru.gloomyana.load;
+
+import io.restassured.specification.RequestSpecification;
+import org.HdrHistogram.Histogram;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.AuthConfig;
+import ru.gloomyana.config.LoadConfig;
+import ru.gloomyana.config.WarmUpConfig;
+import ru.gloomyana.data.BookingDataPool;
+import ru.gloomyana.helpers.LatencyRecorder;
+import ru.gloomyana.helpers.WarmUp;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.specs.RestfulBookerSpec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static ru.gloomyana.helpers.ApiHelpers.*;
+
+/**
+ * Closed-loop load generator: each worker sends its next request only after the previous one completes.
+ * Runs until the configured duration elapses or the request budget is spent, whichever comes first.
+ * <p>
+ * With a positive {@code load.arrivalRate} the loop is open instead: requests are due at a fixed rate whether or
+ * not earlier ones have been answered, and wait in a backlog for a free worker. Latency is counted from the time
+ * a request was due, so a stalled server shows up in every request that queued behind it rather than in one
+ * slow sample (coordinated omission). A request due while {@code load.maxBacklog} others are waiting is dropped.
+ * <p>
+ * From {@link #main} the run starts after a {@link WarmUp}, which is not part of the report.
+ */
+public class LoadRunner {
+    // sent more than this after it was due
+    private static final long LATE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long STOP = Long.MIN_VALUE;
+
+    private final RequestSpecification spec;
+    private final AuthRequestModel credentials;
+    private final LoadConfig config;
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+
+    public LoadRunner(RequestSpecification spec, AuthRequestModel credentials, LoadConfig config) {
+        this.spec = spec;
+        this.credentials = credentials;
+        this.config = config;
+
+        Map<LoadOperation, Integer> mix = parseMix(config.mix());
+        operations = mix.keySet().toArray(new LoadOperation[0]);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Load mix has no positive weights: " + config.mix());
+        }
+    }
+
+    public static void main(String[] args) {
+        AuthConfig authConfig = ConfigFactory.create(AuthConfig.class, System.getProperties());
+        LoadConfig loadConfig = ConfigFactory.create(LoadConfig.class, System.getProperties());
+        WarmUpConfig warmUpConfig = ConfigFactory.create(WarmUpConfig.class, System.getProperties());
+        RequestSpecification spec = RestfulBookerSpec.requestSpec(RestfulBookerSpec.baseUrl());
+        AuthRequestModel credentials = new AuthRequestModel(authConfig.username(), authConfig.password());
+        if (warmUpConfig.enabled()) {
+            System.out.println(WarmUp.run(spec, credentials, warmUpConfig));
+        }
+        System.out.print(new LoadRunner(spec, credentials, loadConfig).run());
+        System.exit(0);
+    }
+
+    public LoadReport run() {
+        return config.arrivalRate() > 0 ? runOpenLoop() : runClosedLoop();
+    }
+
+    private LoadReport runClosedLoop() {
+        long deadline = config.durationSeconds() > 0
+                ? System.nanoTime() + Duration.ofSeconds(config.durationSeconds()).toNanos()
+                : Long.MAX_VALUE;
+        AtomicLong budget = new AtomicLong(config.requests() > 0 ? config.requests() : Long.MAX_VALUE);
+        BookingDataPool dataPool = BookingDataPool.generate(config.seed(), config.dataPoolSize());
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.workers());
+        List<Future<Worker>> futures = new ArrayList<>();
+        List<LatencyRecorder> scopes = LatencyRecorder.scopes();
+        long start = System.nanoTime();
+        for (int i = 0; i < config.workers(); i++) {
+            futures.add(executor.submit(LatencyRecorder.inScopes(scopes,
+                    () -> new Worker(dataPool).run(deadline, budget))));
+        }
+        List<Worker> workers = join(futures, executor);
+        return new LoadReport(latencies(workers), errors(workers), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private LoadReport runOpenLoop() {
+        long period = Math.round(TimeUnit.SECONDS.toNanos(1) / config.arrivalRate());
+        long arrivals = config.requests() > 0 ? config.requests() : Long.MAX_VALUE;
+        BookingDataPool dataPool = BookingDataPool.generate(config.seed(), config.dataPoolSize());
+        BlockingQueue<Long> backlog = new LinkedBlockingQueue<>();
+        CountDownLatch ready = new CountDownLatch(config.workers());
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.workers());
+        List<Future<Worker>> futures = new ArrayList<>();
+        List<LatencyRecorder> scopes = LatencyRecorder.scopes();
+        for (int i = 0; i < config.workers(); i++) {
+            futures.add(executor.submit(LatencyRecorder.inScopes(scopes,
+                    () -> new Worker(dataPool).serve(backlog, ready))));
+        }
+        await(ready);
+
+        long start = System.nanoTime();
+        long deadline = config.durationSeconds() > 0
+                ? start + Duration.ofSeconds(config.durationSeconds()).toNanos()
+                : Long.MAX_VALUE;
+        long dropped = 0;
+        int maxBacklog = 0;
+        for (long n = 0, due = start; n < arrivals && due < deadline; n++, due += period) {
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            if (backlog.size() >= config.maxBacklog()) {
+                dropped++;
+            } else {
+                backlog.add(due);
+                maxBacklog = Math.max(maxBacklog, backlog.size());
+            }
+        }
+        for (int i = 0; i < config.workers(); i++) {
+            backlog.add(STOP);
+        }
+        List<Worker> workers = join(futures, executor);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        long sent = 0, late = 0, maxLateness = 0, lastSent = start;
+        for (Worker worker : workers) {
+            sent += worker.sent;
+            late += worker.late;
+            maxLateness = Math.max(maxLateness, worker.maxLateness);
+            lastSent = Math.max(lastSent, worker.lastSent);
+        }
+        // over the time the requests went out in, so the answers still outstanding at the end do not count
+        double achievedRate = sent / ((lastSent - start + period) / 1_000_000_000.0);
+        return new LoadReport(latencies(workers), errors(workers), elapsed, config.arrivalRate(), achievedRate,
+                dropped, late, Duration.ofNanos(maxLateness), maxBacklog);
+    }
+
+    private static List<Worker> join(List<Future<Worker>> futures, ExecutorService executor) {
+        List<Worker> workers = new ArrayList<>();
+        try {
+            for (Future<Worker> future : futures) {
+                workers.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return workers;
+    }
+
+    private static Map<LoadOperation, Histogram> latencies(List<Worker> workers) {
+        Map<LoadOperation, Histogram> latencies = new EnumMap<>(LoadOperation.class);
+        for (Worker worker : workers) {
+            worker.latencies.forEach((operation, histogram) ->
+                    latencies.computeIfAbsent(operation, key -> newHistogram()).add(histogram));
+        }
+        return latencies;
+    }
+
+    private static Map<LoadOperation, Long> errors(List<Worker> workers) {
+        Map<LoadOperation, Long> errors = new EnumMap<>(LoadOperation.class);
+        for (Worker worker : workers) {
+            worker.errors.forEach((operation, count) -> errors.merge(operation, count, Long::sum));
+        }
+        return errors;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load run interrupted", e);
+        }
+    }
+
+    private LoadOperation nextOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in load mix, got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(LoadOperation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        return weights;
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(3);
+    }
+
+    private class Worker {
+        final Map<LoadOperation, Histogram> latencies = new EnumMap<>(LoadOperation.class);
+        final Map<LoadOperation, Long> errors = new EnumMap<>(LoadOperation.class);
+        final BookingDataPool dataPool;
+        final List<Integer> bookingIds = new ArrayList<>();
+        String token;
+
+        Worker(BookingDataPool dataPool) {
+            this.dataPool = dataPool;
+        }
+
+        long sent, late, maxLateness, lastSent;
+
+        Worker run(long deadline, AtomicLong budget) {
+            start();
+            while (System.nanoTime() < deadline && budget.getAndDecrement() > 0) {
+                send(System.nanoTime());
+            }
+            return this;
+        }
+
+        // takes due times from the backlog until it finds STOP
+        Worker serve(BlockingQueue<Long> backlog, CountDownLatch ready) throws InterruptedException {
+            try {
+                start();
+            } finally {
+                ready.countDown();
+            }
+            for (long due = backlog.take(); due != STOP; due = backlog.take()) {
+                long lateness = System.nanoTime() - due;
+                if (lateness > LATE_NANOS) {
+                    late++;
+                }
+                maxLateness = Math.max(maxLateness, lateness);
+                lastSent = System.nanoTime();
+                sent++;
+                send(due);
+            }
+            return this;
+        }
+
+        void start() {
+            for (LoadOperation operation : operations) {
+                latencies.put(operation, newHistogram());
+            }
+            latencies.putIfAbsent(LoadOperation.CREATE, newHistogram());
+            token = createToken(spec, credentials).getToken();
+        }
+
+        // the latency of the call is counted from since
+        void send(long since) {
+            LoadOperation operation = nextOperation();
+            if (operation.needsBooking() && bookingIds.isEmpty()) {
+                operation = LoadOperation.CREATE;
+            }
+            try {
+                execute(operation);
+                latencies.get(operation).recordValue(System.nanoTime() - since);
+            } catch (RuntimeException | AssertionError e) {
+                errors.merge(operation, 1L, Long::sum);
+            }
+        }
+
+        void execute(LoadOperation operation) {
+            switch (operation) {
+                case AUTH:
+                    token = createToken(spec, credentials).getToken();
+                    break;
+                case CREATE:
+                    bookingIds.add(createBooking(spec, dataPool.next(), token).getBookingId());
+                    break;
+                case UPDATE:
+                    updateBooking(spec, dataPool.next(), token, randomBookingId());
+                    break;
+                case GET:
+                    getBooking(spec, randomBookingId());
+                    break;
+                case DELETE:
+                    int index = ThreadLocalRandom.current().nextInt(bookingIds.size());
+                    int id = bookingIds.get(index);
+                    bookingIds.set(index, bookingIds.get(bookingIds.size() - 1));
+                    bookingIds.remove(bookingIds.size() - 1);
+                    deleteBooking(spec, token, id);
+                    break;
+            }
+        }
+
+        int randomBookingId() {
+            return bookingIds.get(ThreadLocalRandom.current().nextInt(bookingIds.size()));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.gloomyana.load;
+
+import org.HdrHistogram.Histogram;
+import ru.gloomyana.helpers.LatencyRecorder;
+
+import java.time.Duration;
+import java.util.Map;
+
+public class ReplayReport {
+    private final long requests, failed, mismatched, late;
+    private final Duration maxLateness, elapsed;
+    private final LatencyRecorder latencies;
+
+    ReplayReport(long requests, long failed, long mismatched, long late, Duration maxLateness, Duration elapsed,
+                 LatencyRecorder latencies) {
+        this.requests = requests;
+        this.failed = failed;
+        this.mismatched = mismatched;
+        this.late = late;
+        this.maxLateness = maxLateness;
+        this.elapsed = elapsed;
+        this.latencies = latencies;
+    }
+
+    public long requests() {
+        return requests;
+    }
+
+    // transport errors and timeouts
+    public long failed() {
+        return failed;
+    }
+
+    // answered with a different status code than during the capture
+    public long mismatched() {
+        return mismatched;
+    }
+
+    // sent more than 10 ms after their captured offset; always 0 at max speed
+    public long late() {
+        return late;
+    }
+
+    public Duration maxLateness() {
+        return maxLateness;
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public Map<String, Histogram> latencies() {
+        return latencies.snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return LatencyRecorder.summary(latencies.snapshot()) + String.format(
+                "replayed %d requests in %.1f s: %d failed, %d with another status, %d late (max %d ms)%n",
+                requests, elapsed.toNanos() / 1_000_000_000.0, failed, mismatched, late, maxLateness.toMillis());
+    }
+}
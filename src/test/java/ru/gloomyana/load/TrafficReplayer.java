@@ -0,0 +1,300 @@
+package ru.gloomyana.load;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.AuthConfig;
+import ru.gloomyana.config.CaptureConfig;
+import ru.gloomyana.config.ConnectionPoolConfig;
+import ru.gloomyana.helpers.LatencyRecorder;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.models.TrafficRecordModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends a log written by {@link ru.gloomyana.helpers.TrafficCapture} to any base URL. With a positive
+ * {@code speed} every request leaves at its captured offset divided by the speed (1 is the original pacing);
+ * with 0 requests go out as fast as {@code maxInFlight} allows.
+ * <p>
+ * Tokens from POST /auth and ids from POST /booking differ between servers, so the value the target returns
+ * replaces the captured one in later paths and cookies. A request that uses such a value waits for the call
+ * that created it instead of failing on an unknown id, and calls on the same booking id keep their captured
+ * order, so a GET is not overtaken by the DELETE that followed it. The capture leaves the POST /auth body out,
+ * so it is sent with the {@code username} and {@code password} configured for the target.
+ */
+public class TrafficReplayer {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<String, String> CREATED_VALUES = Map.of("POST /auth", "token", "POST /booking", "bookingid");
+    // set by HttpClient itself and rejected when given explicitly
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+    private static final long LATE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final double speed;
+    private final int maxInFlight;
+    private final String credentials;
+
+    public TrafficReplayer(HttpClient client, String baseUrl, Duration requestTimeout, double speed, int maxInFlight,
+                           AuthRequestModel credentials) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.speed = speed;
+        this.maxInFlight = maxInFlight;
+        this.credentials = MAPPER.valueToTree(credentials).toString();
+    }
+
+    public static TrafficReplayer create(String baseUrl, double speed, int maxInFlight) {
+        ConnectionPoolConfig config = ConfigFactory.create(ConnectionPoolConfig.class, System.getProperties());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.connectTimeoutMillis()))
+                .build();
+        AuthConfig auth = ConfigFactory.create(AuthConfig.class, System.getProperties());
+        return new TrafficReplayer(client, baseUrl, Duration.ofMillis(config.readTimeoutMillis()), speed, maxInFlight,
+                new AuthRequestModel(auth.username(), auth.password()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        CaptureConfig config = ConfigFactory.create(CaptureConfig.class, System.getProperties());
+        String baseUrl = "embedded".equals(config.replayBaseUrl())
+                ? EmbeddedBookerServer.shared().baseUrl()
+                : config.replayBaseUrl();
+        TrafficReplayer replayer = create(baseUrl, config.replaySpeed(), config.replayMaxInFlight());
+        System.out.print(replayer.replay(Paths.get(config.replayFile())));
+        System.exit(0);
+    }
+
+    public ReplayReport replay(Path log) throws IOException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Map<String, CompletableFuture<String>> created = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<?>> lastCalls = new HashMap<>();
+        LatencyRecorder latencies = new LatencyRecorder();
+        LongAdder failed = new LongAdder(), mismatched = new LongAdder(), late = new LongAdder();
+        AtomicLong maxLateness = new AtomicLong();
+        long requests = 0, start = System.nanoTime(), firstOffset = -1;
+
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                TrafficRecordModel record = MAPPER.readValue(line, TrafficRecordModel.class);
+                // the schedule starts with the first request, not before its line was parsed
+                if (firstOffset < 0) {
+                    firstOffset = record.getOffsetMicros();
+                    start = System.nanoTime();
+                }
+                long due = speed > 0
+                        ? start + (long) (TimeUnit.MICROSECONDS.toNanos(record.getOffsetMicros() - firstOffset) / speed)
+                        : 0;
+                if (speed > 0) {
+                    sleepUntil(due);
+                }
+                acquire(inFlight, 1);
+                if (speed > 0) {
+                    long lateness = System.nanoTime() - due;
+                    maxLateness.accumulateAndGet(lateness, Math::max);
+                    if (lateness > LATE_NANOS) {
+                        late.increment();
+                    }
+                }
+                requests++;
+
+                String endpoint = LatencyRecorder.endpoint(record.getMethod(), URI.create(record.getPath()).getRawPath());
+                CompletableFuture<String> createdValue = createdValue(record, endpoint, created);
+                List<CompletableFuture<?>> dependencies = dependencies(record, created, lastCalls);
+                CompletableFuture<?> call = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+                        // sent from another thread, so a slow first send does not hold up the next due time
+                        .thenComposeAsync(ignored -> send(rewrite(record, endpoint, created), endpoint, latencies))
+                        .handle((response, error) -> {
+                            if (error != null) {
+                                failed.increment();
+                            } else if (response.statusCode() != record.getStatus()) {
+                                mismatched.increment();
+                            }
+                            if (createdValue != null) {
+                                createdValue.complete(error == null
+                                        ? field(response.body(), CREATED_VALUES.get(endpoint))
+                                        : null);
+                            }
+                            inFlight.release();
+                            return null;
+                        });
+                for (String id : ids(record)) {
+                    lastCalls.put(id, call);
+                }
+            }
+        }
+        acquire(inFlight, maxInFlight);
+        return new ReplayReport(requests, failed.sum(), mismatched.sum(), late.sum(),
+                Duration.ofNanos(maxLateness.get()), Duration.ofNanos(System.nanoTime() - start), latencies);
+    }
+
+    // registered before the call is sent so every later request that uses the captured value waits for it
+    private static CompletableFuture<String> createdValue(TrafficRecordModel record, String endpoint,
+                                                          Map<String, CompletableFuture<String>> created) {
+        String field = CREATED_VALUES.get(endpoint);
+        String captured = field == null ? null : field(record.getResponseBody(), field);
+        if (captured == null) {
+            return null;
+        }
+        CompletableFuture<String> value = new CompletableFuture<>();
+        created.put(captured, value);
+        return value;
+    }
+
+    private static List<CompletableFuture<?>> dependencies(TrafficRecordModel record,
+                                                           Map<String, CompletableFuture<String>> created,
+                                                           Map<String, CompletableFuture<?>> lastCalls) {
+        List<CompletableFuture<?>> dependencies = new ArrayList<>();
+        for (String id : ids(record)) {
+            CompletableFuture<?> previous = lastCalls.containsKey(id) ? lastCalls.get(id) : created.get(id);
+            if (previous != null) {
+                dependencies.add(previous);
+            }
+        }
+        String token = cookieToken(record);
+        if (token != null && created.containsKey(token)) {
+            dependencies.add(created.get(token));
+        }
+        return dependencies;
+    }
+
+    private static List<String> ids(TrafficRecordModel record) {
+        List<String> ids = new ArrayList<>();
+        for (String segment : URI.create(record.getPath()).getRawPath().split("/")) {
+            if (!segment.isEmpty() && segment.chars().allMatch(Character::isDigit)) {
+                ids.add(segment);
+            }
+        }
+        return ids;
+    }
+
+    private HttpRequest rewrite(TrafficRecordModel record, String endpoint,
+                                Map<String, CompletableFuture<String>> created) {
+        URI captured = URI.create(record.getPath());
+        StringBuilder path = new StringBuilder();
+        for (String segment : captured.getRawPath().split("/")) {
+            if (!segment.isEmpty()) {
+                path.append('/').append(replacement(segment, created));
+            }
+        }
+        if (captured.getRawQuery() != null) {
+            path.append('?').append(captured.getRawQuery());
+        }
+        String body = record.getRequestBody() == null && endpoint.equals("POST /auth")
+                ? credentials
+                : record.getRequestBody();
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .method(record.getMethod(), body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (record.getRequestHeaders() != null) {
+            record.getRequestHeaders().forEach((name, value) -> {
+                if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                    String token = cookieToken(record);
+                    request.header(name, name.equalsIgnoreCase("Cookie") && token != null
+                            ? value.replace("token=" + token, "token=" + replacement(token, created))
+                            : value);
+                }
+            });
+        }
+        return request.build();
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request, String endpoint,
+                                                         LatencyRecorder latencies) {
+        long sentAt = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            latencies.record(endpoint, System.nanoTime() - sentAt);
+            return response;
+        });
+    }
+
+    // a value the target never returned (a failed create) is sent as captured
+    private static String replacement(String captured, Map<String, CompletableFuture<String>> created) {
+        CompletableFuture<String> value = created.get(captured);
+        String replayed = value == null ? null : value.getNow(null);
+        return replayed == null ? captured : replayed;
+    }
+
+    private static String cookieToken(TrafficRecordModel record) {
+        if (record.getRequestHeaders() == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : record.getRequestHeaders().entrySet()) {
+            if (header.getKey().equalsIgnoreCase("Cookie")) {
+                for (String pair : header.getValue().split(";")) {
+                    String[] parts = pair.trim().split("=", 2);
+                    if (parts.length == 2 && parts[0].equals("token")) {
+                        return parts[1];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String field(String json, String name) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            JsonNode value = MAPPER.readTree(json).get(name);
+            return value == null || value.isNull() ? null : value.asText();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void sleepUntil(long due) {
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while replaying traffic", e);
+            }
+        }
+    }
+
+    private static void acquire(Semaphore semaphore, int permits) {
+        try {
+            semaphore.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying traffic", e);
+        }
+    }
+}
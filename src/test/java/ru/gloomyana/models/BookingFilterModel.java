@@ -0,0 +1,11 @@
+package ru.gloomyana.models;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Query parameters of GET /booking; null fields are left out of the request
+@Data
+@Builder
+public class BookingFilterModel {
+    String firstname, lastname, checkin, checkout;
+}
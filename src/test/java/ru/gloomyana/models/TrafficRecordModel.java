@@ -0,0 +1,39 @@
+package ru.gloomyana.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.Map;
+
+// one line of a traffic capture; times are microseconds, the offset counts from the start of the capture
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"t", "method", "path", "headers", "body", "status", "response", "latency"})
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TrafficRecordModel {
+    @JsonProperty("t")
+    long offsetMicros;
+
+    String method, path;
+
+    @JsonProperty("headers")
+    Map<String, String> requestHeaders;
+
+    @JsonProperty("body")
+    String requestBody;
+
+    int status;
+
+    @JsonProperty("response")
+    String responseBody;
+
+    @JsonProperty("latency")
+    long latencyMicros;
+}
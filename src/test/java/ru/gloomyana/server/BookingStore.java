@@ -0,0 +1,69 @@
+package ru.gloomyana.server;
+
+import ru.gloomyana.models.BookingDatesModel;
+import ru.gloomyana.models.BookingRequestModel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+public class BookingStore {
+    private final Map<Integer, BookingRequestModel> bookings = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public int create(BookingRequestModel booking) {
+        int id = sequence.incrementAndGet();
+        bookings.put(id, booking);
+        return id;
+    }
+
+    public BookingRequestModel get(int id) {
+        return bookings.get(id);
+    }
+
+    public BookingRequestModel update(int id, UnaryOperator<BookingRequestModel> change) {
+        return bookings.computeIfPresent(id, (key, current) -> change.apply(current));
+    }
+
+    public boolean delete(int id) {
+        return bookings.remove(id) != null;
+    }
+
+    public int[] find(String firstname, String lastname, String checkin, String checkout) {
+        return bookings.entrySet().stream()
+                .filter(entry -> matches(entry.getValue(), firstname, lastname, checkin, checkout))
+                .mapToInt(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+    }
+
+    public int size() {
+        return bookings.size();
+    }
+
+    // ISO yyyy-MM-dd dates compare correctly as plain strings
+    private static boolean matches(BookingRequestModel booking, String firstname, String lastname,
+                                   String checkin, String checkout) {
+        BookingDatesModel dates = booking.getBookingDatesModel();
+        return (firstname == null || firstname.equals(booking.getFirstname()))
+                && (lastname == null || lastname.equals(booking.getLastname()))
+                && (checkin == null || dates.getCheckin().compareTo(checkin) >= 0)
+                && (checkout == null || dates.getCheckout().compareTo(checkout) >= 0);
+    }
+
+    void seed() {
+        String[] firstnames = {"Sally", "Jim", "Mark", "Mary", "Susan", "Eric", "John", "Sally", "Jim", "Mary"};
+        String[] lastnames = {"Brown", "Smith", "Jones", "Wilson", "Jackson", "Brown", "Ericsson", "Smith", "Jones", "Brown"};
+        for (int i = 0; i < firstnames.length; i++) {
+            create(BookingRequestModel.builder()
+                    .firstname(firstnames[i])
+                    .lastname(lastnames[i])
+                    .totalPrice(100 + i * 50)
+                    .depositPaid(i % 2 == 0)
+                    .bookingDatesModel(new BookingDatesModel("2023-11-1" + i % 10, "2023-11-2" + i % 10))
+                    .additionalNeeds(i % 2 == 0 ? "Breakfast" : "None")
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package ru.gloomyana.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link HttpExchange} over a request read in full, so a {@link com.sun.net.httpserver.HttpHandler} can serve
+ * {@link H2cServer} requests. The response is kept in memory and sent by the server once the handler returns.
+ */
+class BufferedExchange extends HttpExchange {
+    private final String method, protocol;
+    private final URI uri;
+    private final Headers requestHeaders, responseHeaders = new Headers();
+    private final InetSocketAddress localAddress, remoteAddress;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+    private InputStream requestBody;
+    private OutputStream responseStream;
+    private int responseCode = -1;
+
+    BufferedExchange(String method, URI uri, String protocol, Headers requestHeaders, byte[] requestBody,
+                     InetSocketAddress localAddress, InetSocketAddress remoteAddress) {
+        this.method = method;
+        this.uri = uri;
+        this.protocol = protocol;
+        this.requestHeaders = requestHeaders;
+        this.requestBody = new ByteArrayInputStream(requestBody);
+        this.responseStream = responseBody;
+        this.localAddress = localAddress;
+        this.remoteAddress = remoteAddress;
+    }
+
+    byte[] responseBytes() {
+        return responseBody.toByteArray();
+    }
+
+    // replaces whatever the handler left with an empty 500
+    void fail() {
+        responseCode = 500;
+        responseHeaders.clear();
+        responseBody.reset();
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return uri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return method;
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return requestBody;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return responseStream;
+    }
+
+    // the length is not needed: the body is sent with the length it ends up having
+    @Override
+    public void sendResponseHeaders(int responseCode, long responseLength) {
+        this.responseCode = responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    @Override
+    public String getProtocol() {
+        return protocol;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void setStreams(InputStream requestBody, OutputStream responseBody) {
+        if (requestBody != null) {
+            this.requestBody = requestBody;
+        }
+        if (responseBody != null) {
+            this.responseStream = responseBody;
+        }
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+}
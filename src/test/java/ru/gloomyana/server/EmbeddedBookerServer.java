@@ -0,0 +1,332 @@
+package ru.gloomyana.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.aeonbits.owner.ConfigFactory;
+import ru.gloomyana.config.ApiConfig;
+import ru.gloomyana.config.AuthConfig;
+import ru.gloomyana.models.BookingRequestModel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process stand-in for restful-booker.herokuapp.com, selected with {@code baseUrl=embedded}.
+ * Mirrors the status codes and payloads of the public service on a concurrent in-memory store, including the
+ * ETags and 304 answers to {@code If-None-Match} on GET /booking/{id}. {@link #h2c()} serves the same bookings
+ * over HTTP/2 as well.
+ */
+public class EmbeddedBookerServer implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String TEXT = "text/plain; charset=utf-8";
+    private static volatile EmbeddedBookerServer shared;
+
+    // HttpServer writes headers and body separately; with Nagle on, the body waits for the client's delayed
+    // ACK and every call takes ~40 ms. Read once, when the first HttpServer of the JVM is created.
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final BookingStore store = new BookingStore();
+    private final Set<String> tokens = ConcurrentHashMap.newKeySet();
+    private final String username, password, basicAuth;
+    private final int threads;
+    private volatile H2cServer h2c;
+
+    public EmbeddedBookerServer(String username, String password, int threads) {
+        this.username = username;
+        this.password = password;
+        this.threads = threads;
+        this.basicAuth = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start embedded restful-booker", e);
+        }
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        store.seed();
+        server.start();
+    }
+
+    public static EmbeddedBookerServer shared() {
+        if (shared == null) {
+            synchronized (EmbeddedBookerServer.class) {
+                if (shared == null) {
+                    AuthConfig config = ConfigFactory.create(AuthConfig.class, System.getProperties());
+                    EmbeddedBookerServer server = new EmbeddedBookerServer(config.username(), config.password(),
+                            Math.max(8, Runtime.getRuntime().availableProcessors() * 4));
+                    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+                    shared = server;
+                }
+            }
+        }
+        return shared;
+    }
+
+    // selected with baseUrl=embedded; read without starting the server
+    public static boolean selected() {
+        return "embedded".equals(ConfigFactory.create(ApiConfig.class, System.getProperties()).baseUrl());
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public BookingStore store() {
+        return store;
+    }
+
+    // the same handler and store on a second port that also takes HTTP/2, started on first use
+    public H2cServer h2c() {
+        if (h2c == null) {
+            synchronized (this) {
+                if (h2c == null) {
+                    h2c = new H2cServer(this::handle, threads);
+                }
+            }
+        }
+        return h2c;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        if (h2c != null) {
+            h2c.close();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+
+            if (path.length == 2 && path[1].equals("ping") && method.equals("GET")) {
+                send(exchange, 201, TEXT, "Created");
+            } else if (path.length == 2 && path[1].equals("auth") && method.equals("POST")) {
+                auth(exchange);
+            } else if (path.length == 2 && path[1].equals("booking") && method.equals("GET")) {
+                findBookings(exchange);
+            } else if (path.length == 2 && path[1].equals("booking") && method.equals("POST")) {
+                createBooking(exchange);
+            } else if (path.length == 3 && path[1].equals("booking") && path[2].matches("\\d{1,9}")) {
+                bookingById(exchange, method, Integer.parseInt(path[2]));
+            } else {
+                send(exchange, 404, TEXT, "Not Found");
+            }
+        } catch (RuntimeException e) {
+            send(exchange, 500, TEXT, "Internal Server Error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void auth(HttpExchange exchange) throws IOException {
+        JsonNode body = readJson(exchange);
+        ObjectNode response = MAPPER.createObjectNode();
+        if (body != null && username.equals(body.path("username").asText(null))
+                && password.equals(body.path("password").asText(null))) {
+            String token = UUID.randomUUID().toString().replace("-", "").substring(0, 15);
+            tokens.add(token);
+            response.put("token", token);
+        } else {
+            response.put("reason", "Bad credentials");
+        }
+        send(exchange, 200, JSON, MAPPER.writeValueAsBytes(response));
+    }
+
+    private void findBookings(HttpExchange exchange) throws IOException {
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        int[] ids = store.find(query.get("firstname"), query.get("lastname"),
+                query.get("checkin"), query.get("checkout"));
+        ArrayNode response = MAPPER.createArrayNode();
+        for (int id : ids) {
+            response.addObject().put("bookingid", id);
+        }
+        send(exchange, 200, JSON, MAPPER.writeValueAsBytes(response));
+    }
+
+    private void createBooking(HttpExchange exchange) throws IOException {
+        JsonNode body = readJson(exchange);
+        if (!isCompleteBooking(body)) {
+            send(exchange, 500, TEXT, "Internal Server Error");
+            return;
+        }
+        BookingRequestModel booking = MAPPER.treeToValue(body, BookingRequestModel.class);
+        ObjectNode response = MAPPER.createObjectNode();
+        response.put("bookingid", store.create(booking));
+        response.set("booking", MAPPER.valueToTree(booking));
+        send(exchange, 200, JSON, MAPPER.writeValueAsBytes(response));
+    }
+
+    private void bookingById(HttpExchange exchange, String method, int id) throws IOException {
+        if (method.equals("GET")) {
+            BookingRequestModel booking = store.get(id);
+            if (booking == null) {
+                send(exchange, 404, TEXT, "Not Found");
+                return;
+            }
+            byte[] body = MAPPER.writeValueAsBytes(booking);
+            String etag = etag(body);
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                send(exchange, 200, JSON, body);
+            }
+            return;
+        }
+        if (!method.equals("PUT") && !method.equals("PATCH") && !method.equals("DELETE")) {
+            send(exchange, 404, TEXT, "Not Found");
+            return;
+        }
+        if (!isAuthorized(exchange)) {
+            send(exchange, 403, TEXT, "Forbidden");
+            return;
+        }
+        if (method.equals("DELETE")) {
+            if (store.delete(id)) {
+                send(exchange, 201, TEXT, "Created");
+            } else {
+                send(exchange, 405, TEXT, "Method Not Allowed");
+            }
+            return;
+        }
+
+        JsonNode body = readJson(exchange);
+        boolean partial = method.equals("PATCH");
+        if (body == null || !body.isObject() || (!partial && !isCompleteBooking(body))) {
+            send(exchange, 400, TEXT, "Bad Request");
+            return;
+        }
+        BookingRequestModel updated = store.update(id, current -> partial
+                ? merge(current, (ObjectNode) body)
+                : treeToBooking(body));
+        if (updated == null) {
+            send(exchange, 405, TEXT, "Method Not Allowed");
+        } else {
+            send(exchange, 200, JSON, MAPPER.writeValueAsBytes(updated));
+        }
+    }
+
+    private static BookingRequestModel merge(BookingRequestModel current, ObjectNode patch) {
+        ObjectNode merged = MAPPER.valueToTree(current);
+        patch.fields().forEachRemaining(field -> {
+            if (field.getKey().equals("bookingdates") && field.getValue().isObject()) {
+                ((ObjectNode) merged.get("bookingdates")).setAll((ObjectNode) field.getValue());
+            } else {
+                merged.set(field.getKey(), field.getValue());
+            }
+        });
+        return treeToBooking(merged);
+    }
+
+    private static BookingRequestModel treeToBooking(JsonNode node) {
+        try {
+            return MAPPER.treeToValue(node, BookingRequestModel.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // weak validator in the format Express (and so restful-booker) sends: length and SHA-1 of the body
+    private static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(body);
+            return "W/\"" + Integer.toHexString(body.length) + "-"
+                    + Base64.getEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isCompleteBooking(JsonNode body) {
+        return body != null
+                && body.path("firstname").isTextual()
+                && body.path("lastname").isTextual()
+                && body.path("totalprice").isNumber()
+                && body.path("depositpaid").isBoolean()
+                && body.path("bookingdates").path("checkin").isTextual()
+                && body.path("bookingdates").path("checkout").isTextual();
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        if (basicAuth.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            return true;
+        }
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookie == null) {
+            return false;
+        }
+        for (String part : cookie.split(";")) {
+            String[] pair = part.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].equals("token") && tokens.contains(pair[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JsonNode readJson(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readAllBytes();
+            return bytes.length == 0 ? null : MAPPER.readTree(bytes);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            params.putIfAbsent(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8),
+                    keyValue.length == 2 ? URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8) : "");
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        send(exchange, status, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ru.gloomyana.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpHandler;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http2.HTTP2Connection;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.io.Connection;
+import org.eclipse.jetty.io.Content;
+import org.eclipse.jetty.io.SelectorManager;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loopback Jetty server for an {@link HttpHandler} that speaks HTTP/1.1 and cleartext HTTP/2 (h2c), which
+ * {@link com.sun.net.httpserver.HttpServer} cannot. A connection starts as HTTP/1.1 and switches to HTTP/2 on an
+ * {@code Upgrade: h2c} request, the way {@link java.net.http.HttpClient} asks for it, or at once on the HTTP/2
+ * preface (prior knowledge).
+ * <p>
+ * Requests are read in full and answered through a {@link BufferedExchange}. Accepted connections are counted,
+ * so that transports can be compared.
+ */
+public class H2cServer implements AutoCloseable {
+    private final Server server;
+    private final ServerConnector connector;
+    private final LongAdder connections = new LongAdder(), http2Connections = new LongAdder();
+
+    public H2cServer(HttpHandler handler, int threads) {
+        QueuedThreadPool pool = new QueuedThreadPool(Math.max(8, threads));
+        pool.setName("h2c");
+        pool.setDaemon(true);
+        server = new Server(pool);
+        HttpConfiguration config = new HttpConfiguration();
+        config.setSendServerVersion(false);
+        connector = new ServerConnector(server, 1, 1, new HttpConnectionFactory(config),
+                new HTTP2CServerConnectionFactory(config));
+        connector.setHost("127.0.0.1");
+        connector.setPort(0);
+        connector.setAcceptQueueSize(1024);
+        connector.addEventListener(new SelectorManager.AcceptListener() {
+            @Override
+            public void onAccepted(SelectableChannel channel) {
+                connections.increment();
+            }
+        });
+        connector.addEventListener(new Connection.Listener() {
+            @Override
+            public void onOpened(Connection connection) {
+                if (connection instanceof HTTP2Connection) {
+                    http2Connections.increment();
+                }
+            }
+        });
+        server.addConnector(connector);
+        server.setHandler(new Adapter(handler));
+        try {
+            server.start();
+        } catch (Exception e) {
+            close();
+            throw new IllegalStateException("Unable to start h2c server", e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + connector.getLocalPort();
+    }
+
+    // accepted since start, whatever protocol they ended up speaking
+    public long connections() {
+        return connections.sum();
+    }
+
+    public long http2Connections() {
+        return http2Connections.sum();
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.stop();
+        } catch (Exception ignored) {
+            // stopping is best effort, as for HttpServer.stop
+        }
+    }
+
+    private static class Adapter extends Handler.Abstract {
+        private final HttpHandler handler;
+
+        Adapter(HttpHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean handle(Request request, Response response, Callback callback) throws Exception {
+            Headers headers = new Headers();
+            for (HttpField field : request.getHeaders()) {
+                headers.add(field.getName(), field.getValue());
+            }
+            byte[] body;
+            try (InputStream in = Content.Source.asInputStream(request)) {
+                body = in.readAllBytes();
+            }
+            BufferedExchange exchange = new BufferedExchange(request.getMethod(),
+                    URI.create(request.getHttpURI().getPathQuery()), request.getConnectionMetaData().getProtocol(),
+                    headers, body, (InetSocketAddress) request.getConnectionMetaData().getLocalSocketAddress(),
+                    (InetSocketAddress) request.getConnectionMetaData().getRemoteSocketAddress());
+            try {
+                handler.handle(exchange);
+            } catch (RuntimeException e) {
+                exchange.fail();
+            }
+            if (exchange.getResponseCode() < 0) {
+                exchange.fail();
+            }
+
+            response.setStatus(exchange.getResponseCode());
+            exchange.getResponseHeaders().forEach((name, values) ->
+                    values.forEach(value -> response.getHeaders().add(name, value)));
+            response.write(true, ByteBuffer.wrap(exchange.responseBytes()), callback);
+            return true;
+        }
+    }
+}
@@ -1,44 +1,96 @@
 package ru.gloomyana.specs;
 
 import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
 import org.aeonbits.owner.ConfigFactory;
 import ru.gloomyana.config.ApiConfig;
+import ru.gloomyana.helpers.ConnectionPool;
+import ru.gloomyana.helpers.Http2Transport;
+import ru.gloomyana.helpers.LatencyBudget;
+import ru.gloomyana.helpers.LatencyRecorder;
+import ru.gloomyana.helpers.RateLimiter;
+import ru.gloomyana.helpers.TrafficCapture;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
 import static io.restassured.RestAssured.with;
 import static io.restassured.filter.log.LogDetail.BODY;
 import static io.restassured.filter.log.LogDetail.STATUS;
-import static org.hamcrest.Matchers.notNullValue;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static ru.gloomyana.helpers.CustomAllureListener.isFullReporting;
 import static ru.gloomyana.helpers.CustomAllureListener.withCustomTemplates;
+import static ru.gloomyana.helpers.JsonSchemas.matchesSchema;
 
 public class RestfulBookerSpec {
     static ApiConfig config = ConfigFactory.create(ApiConfig.class, System.getProperties());
-    public static RequestSpecification baseRequestSpec = with()
+    // logging goes before the latency recorder and the rate limiter, which must come last
+    public static RequestSpecification baseRequestSpec = logged(with()
+            .config(clientConfig(configuredTransport()))
+            .filter(ConnectionPool.releaseConnection())
             .filter(withCustomTemplates())
-            .log().uri()
-            .log().body()
-            .baseUri(config.baseUrl());
-
-    public static ResponseSpecification authResponseSpec = new ResponseSpecBuilder()
-            .log(STATUS)
-            .log(BODY)
-            .expectBody("token", notNullValue())
+            .filter(TrafficCapture.filter()))
+            .filter(LatencyRecorder.filter())
+            .filter(RateLimiter.filter())
+            .baseUri(baseUrl());
+
+    public static ResponseSpecification authResponseSpec = responseSpecBuilder()
+            .expectBody(matchesSchema("auth"))
+            .build();
+
+    public static ResponseSpecification createBookingResponseSpec = responseSpecBuilder()
+            .expectBody(matchesSchema("create-booking"))
             .build();
 
-    public static ResponseSpecification createBookingResponseSpec = new ResponseSpecBuilder()
-            .log(STATUS)
-            .log(BODY)
-            .expectBody("bookingid", notNullValue())
-            .expectBody("booking", notNullValue())
+    public static ResponseSpecification bookingResponseSpec = responseSpecBuilder()
+            .expectBody(matchesSchema("booking"))
             .build();
 
-    public static ResponseSpecification bookingResponseSpec = new ResponseSpecBuilder()
-            .log(STATUS)
-            .log(BODY)
-            .expectBody("firstname", notNullValue())
-            .expectBody("lastname", notNullValue())
-            .expectBody("totalprice", notNullValue())
-            .expectBody("depositpaid", notNullValue())
-            .expectBody("bookingdates", notNullValue())
+    public static ResponseSpecification bookingIdsResponseSpec = responseSpecBuilder()
+            .expectBody(matchesSchema("booking-ids"))
             .build();
+
+    private static RequestSpecification logged(RequestSpecification spec) {
+        return isFullReporting() ? spec.log().uri().log().body() : spec;
+    }
+
+    private static ResponseSpecBuilder responseSpecBuilder() {
+        ResponseSpecBuilder builder = new ResponseSpecBuilder();
+        if (LatencyBudget.enabled()) {
+            builder.expectResponseTime(LatencyBudget.withinBudget(), MILLISECONDS);
+        }
+        return isFullReporting() ? builder.log(STATUS).log(BODY) : builder;
+    }
+
+    public static RequestSpecification requestSpec(String baseUrl) {
+        return requestSpec(baseUrl, configuredTransport());
+    }
+
+    // a null transport sends over REST Assured's own HTTP/1.1 client
+    public static RequestSpecification requestSpec(String baseUrl, Http2Transport transport) {
+        return with()
+                .config(clientConfig(transport))
+                .filter(ConnectionPool.releaseConnection())
+                .filter(TrafficCapture.filter())
+                .filter(LatencyRecorder.filter())
+                .filter(RateLimiter.filter())
+                .baseUri(baseUrl);
+    }
+
+    private static RestAssuredConfig clientConfig(Http2Transport transport) {
+        return transport == null ? ConnectionPool.restAssuredConfig() : transport.config();
+    }
+
+    private static Http2Transport configuredTransport() {
+        return Http2Transport.enabled() ? Http2Transport.shared() : null;
+    }
+
+    // the embedded server can only take HTTP/2 on its h2c port
+    public static String baseUrl() {
+        if (!"embedded".equals(config.baseUrl())) {
+            return config.baseUrl();
+        }
+        EmbeddedBookerServer server = EmbeddedBookerServer.shared();
+        return Http2Transport.enabled() ? server.h2c().baseUrl() : server.baseUrl();
+    }
 }
@@ -0,0 +1,77 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.config.ConnectionPoolConfig;
+import ru.gloomyana.data.TestData;
+import ru.gloomyana.helpers.AsyncBookingClient;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.models.BookingRequestModel;
+import ru.gloomyana.models.BookingResponseModel;
+import ru.gloomyana.models.CreateBookingResponseModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Epic("API tests for restful-booker")
+@Feature("Async booking client")
+@Tag("load")
+@Owner("gloomyana")
+@Endpoints({"POST /auth", "POST /booking", "GET /booking/{id}"})
+public class AsyncBookingClientTest {
+    private final TestData testData = new TestData();
+
+    @Test
+    @DisplayName("Thousands of concurrent async bookings are created with bounded in-flight requests")
+    public void concurrentAsyncBookingsAreCreated() {
+        ConnectionPoolConfig config = ConfigFactory.create(ConnectionPoolConfig.class, Map.of(
+                "pool.connectTimeoutMillis", "5000",
+                "pool.readTimeoutMillis", "30000",
+                "pool.asyncMaxInFlight", "64",
+                "pool.asyncMaxQueued", "256"));
+        List<BookingRequestModel> bookings = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            bookings.add(testData.createBookingRequestModel());
+        }
+
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 16)) {
+            AsyncBookingClient client = AsyncBookingClient.create(server.baseUrl(), config);
+            String token = client.createToken(new AuthRequestModel("admin", "password123")).join().getToken();
+
+            List<CompletableFuture<CreateBookingResponseModel>> created = new ArrayList<>();
+            int maxQueued = 0;
+            for (BookingRequestModel booking : bookings) {
+                created.add(client.createBooking(booking, token));
+                maxQueued = Math.max(maxQueued, client.queued());
+            }
+            int queuedAtMost = maxQueued;
+            step("Verify requests beyond the in-flight limit are queued and the queue is bounded", () -> {
+                assertThat(client.inFlight()).isLessThanOrEqualTo(64);
+                assertThat(queuedAtMost).isPositive().isLessThanOrEqualTo(256);
+            });
+            CompletableFuture.allOf(created.toArray(new CompletableFuture[0])).join();
+
+            step("Verify every booking got its own id", () ->
+                    assertThat(created.stream().map(CompletableFuture::join)
+                            .mapToInt(CreateBookingResponseModel::getBookingId).distinct().count())
+                            .isEqualTo(bookings.size()));
+
+            CreateBookingResponseModel first = created.get(0).join();
+            BookingResponseModel fetched = client.getBooking(first.getBookingId()).join();
+            step("Verify async read returns the created booking", () ->
+                    assertThat(fetched.getFirstname()).isEqualTo(bookings.get(0).getFirstname()));
+        }
+    }
+}
@@ -8,6 +8,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import ru.gloomyana.config.AuthConfig;
+import ru.gloomyana.helpers.ConcurrentClients;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.impact.Smoke;
 import ru.gloomyana.models.AuthRequestModel;
 import ru.gloomyana.models.AuthResponseModel;
 
@@ -23,10 +26,12 @@ import static ru.gloomyana.specs.RestfulBookerSpec.baseRequestSpec;
 @Feature("Auth token")
 @Tag("api")
 @Owner("gloomyana")
+@Endpoints("POST /auth")
 public class AuthTest {
 
     @Test
     @DisplayName("Successful create a new auth token")
+    @Smoke
     public void createAuthToken() {
         AuthConfig config = ConfigFactory.create(AuthConfig.class, System.getProperties());
         AuthRequestModel authRequestModel = new AuthRequestModel(config.username(), config.password());
@@ -39,26 +44,15 @@ public class AuthTest {
 
     @Test
     @DisplayName("Successful concurrent creation of auth tokens")
-    public void concurrentTokenCreation() throws InterruptedException {
+    public void concurrentTokenCreation() {
         AuthConfig config = ConfigFactory.create(AuthConfig.class, System.getProperties());
         AuthRequestModel authRequestModel = new AuthRequestModel(config.username(), config.password());
 
-        // Create two threads to concurrently create auth tokens
-        Thread thread1 = new Thread(() -> {
+        // Create auth tokens from two concurrent clients; a failed assertion in either one fails the test
+        ConcurrentClients.fromConfig().run(2, client -> {
             AuthResponseModel response = createToken(authRequestModel);
             assertThat(response.getToken()).isNotNull();
         });
-
-        Thread thread2 = new Thread(() -> {
-            AuthResponseModel response = createToken(authRequestModel);
-            assertThat(response.getToken()).isNotNull();
-        });
-
-        thread1.start();
-        thread2.start();
-
-        thread1.join();
-        thread2.join();
     }
 
     @Test
@@ -0,0 +1,142 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.data.TestData;
+import ru.gloomyana.helpers.AuthTokenProvider;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.models.BookingResponseModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.helpers.ApiHelpers.createBooking;
+import static ru.gloomyana.helpers.ApiHelpers.createToken;
+import static ru.gloomyana.helpers.ApiHelpers.partialUpdateBooking;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("Auth token")
+@Tag("unit")
+@Owner("gloomyana")
+@Endpoints({"POST /auth", "POST /booking", "PATCH /booking/{id}"})
+public class AuthTokenCacheTest {
+    private final AuthRequestModel credentials = new AuthRequestModel("admin", "password123");
+
+    @Test
+    @DisplayName("Concurrent token requests share a single POST /auth")
+    public void concurrentRequestsCollapseIntoSingleFetch() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        AuthTokenProvider provider = new AuthTokenProvider(credentials, Duration.ofMinutes(10), key -> {
+            fetches.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "token-" + fetches.get();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                tokens.add(executor.submit(provider::token));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> token : tokens) {
+                assertThat(token.get()).isEqualTo("token-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        step("Verify only one token was fetched", () -> {
+            assertThat(fetches).hasValue(1);
+            assertThat(provider.misses()).isEqualTo(1);
+            assertThat(provider.hits()).isEqualTo(15);
+        });
+    }
+
+    @Test
+    @DisplayName("Expired or rejected token is refreshed exactly once")
+    public void staleTokenIsRefreshedOnce() throws InterruptedException {
+        AtomicInteger fetches = new AtomicInteger();
+        AuthTokenProvider provider = new AuthTokenProvider(credentials, Duration.ofMillis(50),
+                key -> "token-" + fetches.incrementAndGet());
+
+        String first = provider.token();
+        Thread.sleep(60);
+        String afterExpiry = provider.token();
+        String afterRejection = provider.refresh(afterExpiry);
+        String repeatedRejection = provider.refresh(afterExpiry);
+
+        step("Verify tokens were refreshed on expiry and on rejection", () -> {
+            assertThat(first).isEqualTo("token-1");
+            assertThat(afterExpiry).isEqualTo("token-2");
+            assertThat(afterRejection).isEqualTo("token-3");
+            assertThat(repeatedRejection).isEqualTo("token-3");
+            assertThat(provider.refreshes()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    @DisplayName("A call rejected with 403 is repeated once with a refreshed token")
+    public void rejectedTokenIsRefreshedByApiHelpers() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4)) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            AtomicInteger fetches = new AtomicInteger();
+            AuthTokenProvider provider = new AuthTokenProvider(credentials, Duration.ofMinutes(10), key ->
+                    fetches.incrementAndGet() == 1 ? "revoked-token" : createToken(spec, key).getToken());
+            String revoked = provider.token();
+            int id = createBooking(spec, new TestData(3).createBookingRequestModel(), revoked).getBookingId();
+
+            BookingResponseModel patched = step("Patch a booking with a token the server does not accept", () ->
+                    partialUpdateBooking(spec, Map.of("firstname", "Refreshed"), revoked, id));
+
+            step("Verify the patch went through after a single refresh", () -> {
+                assertThat(patched.getFirstname()).isEqualTo("Refreshed");
+                assertThat(provider.refreshes()).isEqualTo(1);
+                assertThat(provider.token()).isNotEqualTo(revoked);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("A replaced token is no longer tracked once nobody holds it")
+    public void replacedTokenIsForgotten() throws InterruptedException {
+        AtomicInteger fetches = new AtomicInteger();
+        AuthTokenProvider provider = new AuthTokenProvider(credentials, Duration.ofMinutes(10),
+                key -> new String("forgotten-token-" + fetches.incrementAndGet()));
+
+        provider.refresh(provider.token());
+        for (int i = 0; i < 50 && AuthTokenProvider.issuerOf("forgotten-token-1") != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        step("Verify only the current token still maps to its provider", () -> {
+            assertThat(AuthTokenProvider.issuerOf("forgotten-token-1")).isNull();
+            assertThat(AuthTokenProvider.issuerOf(provider.token())).isSameAs(provider);
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.data.TestData;
+import ru.gloomyana.helpers.BookingCache;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.models.BookingResponseModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ru.gloomyana.helpers.ApiHelpers.*;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("Booking cache")
+@Tag("unit")
+@Owner("gloomyana")
+@Endpoints({"POST /auth", "POST /booking", "GET /booking/{id}", "PUT /booking/{id}", "PATCH /booking/{id}",
+        "DELETE /booking/{id}"})
+public class BookingCacheTest {
+
+    @Test
+    @DisplayName("Repeated reads of a booking are served from the cache")
+    public void repeatedReadsAreCached() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4);
+             BookingCache cache = new BookingCache(100, Duration.ofMinutes(1))) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            BookingResponseModel first = cache.get(spec, 1);
+            for (int i = 0; i < 9; i++) {
+                assertThat(cache.get(spec, 1)).isSameAs(first);
+            }
+
+            step("Verify one miss, nine hits and the latency they saved", () -> {
+                assertThat(cache.misses()).isEqualTo(1);
+                assertThat(cache.hits()).isEqualTo(9);
+                assertThat(cache.hitRatio()).isEqualTo(0.9);
+                assertThat(cache.savedLatency()).isPositive();
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("An expired booking is revalidated with its ETag")
+    public void expiredBookingIsRevalidated() throws Exception {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4);
+             BookingCache cache = new BookingCache(100, Duration.ofMillis(100))) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            BookingResponseModel first = cache.get(spec, 2);
+
+            Thread.sleep(150);
+            step("Verify an unchanged booking is answered with 304 and kept", () -> {
+                assertThat(cache.get(spec, 2)).isSameAs(first);
+                assertThat(cache.revalidated()).isEqualTo(1);
+            });
+
+            server.store().update(2, booking -> booking.toBuilder().additionalNeeds("Changed elsewhere").build());
+            Thread.sleep(150);
+            step("Verify a booking changed by another client is fetched again", () -> {
+                assertThat(cache.get(spec, 2).getAdditionalNeeds()).isEqualTo("Changed elsewhere");
+                assertThat(cache.misses()).isEqualTo(2);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Updates and deletes through ApiHelpers invalidate the cached booking")
+    public void writesInvalidateCachedBooking() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4);
+             BookingCache cache = new BookingCache(100, Duration.ofMinutes(1))) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            String token = createToken(spec, new AuthRequestModel("admin", "password123")).getToken();
+            int id = createBooking(spec, new TestData(22).createBookingRequestModel(), token).getBookingId();
+            cache.get(spec, id);
+
+            step("Verify a PUT is seen by the next read", () -> {
+                updateBooking(spec, new TestData(23).createBookingRequestModel().toBuilder().totalPrice(1).build(),
+                        token, id);
+                assertThat(cache.get(spec, id).getTotalPrice()).isEqualTo(1);
+            });
+            step("Verify a PATCH is seen by the next read", () -> {
+                partialUpdateBooking(spec, Map.of("totalprice", 2), token, id);
+                assertThat(cache.get(spec, id).getTotalPrice()).isEqualTo(2);
+            });
+            step("Verify a DELETE is seen by the next read", () -> {
+                deleteBooking(spec, token, id);
+                assertThatThrownBy(() -> cache.get(spec, id)).isInstanceOf(AssertionError.class);
+                assertThat(cache.invalidations()).isEqualTo(3);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("The least recently used booking is evicted first")
+    public void leastRecentlyUsedIsEvicted() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4);
+             BookingCache cache = new BookingCache(2, Duration.ofMinutes(1))) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            cache.get(spec, 1);
+            cache.get(spec, 2);
+            cache.get(spec, 1);
+            cache.get(spec, 3);
+
+            step("Verify booking 2 was evicted and booking 1 kept", () -> {
+                cache.get(spec, 1);
+                assertThat(cache.hits()).isEqualTo(2);
+                cache.get(spec, 2);
+                assertThat(cache.misses()).isEqualTo(4);
+                assertThat(cache.evictions()).isEqualTo(2);
+                assertThat(cache.size()).isEqualTo(2);
+            });
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.data.BookingDataPool;
+import ru.gloomyana.models.BookingRequestModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Epic("API tests for restful-booker")
+@Feature("Test data")
+@Tag("unit")
+@Owner("gloomyana")
+public class BookingDataPoolTest {
+
+    @Test
+    @DisplayName("Pools generated from the same seed replay the same bookings")
+    public void sameSeedReplaysSameSequence() {
+        BookingDataPool first = BookingDataPool.generate(42, 100);
+        BookingDataPool second = BookingDataPool.generateInBackground(42, 100, ForkJoinPool.commonPool()).join();
+
+        List<BookingRequestModel> replay = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            replay.add(second.next());
+        }
+        second.rewind();
+
+        step("Verify both pools hand out equal bookings in the same order", () -> {
+            for (int i = 0; i < 150; i++) {
+                assertThat(replay.get(i)).isEqualTo(first.next());
+            }
+            assertThat(second.next()).isSameAs(replay.get(0));
+        });
+        step("Verify the cursor wraps around the pool", () ->
+                assertThat(replay.get(100)).isSameAs(replay.get(0)));
+    }
+
+    @Test
+    @DisplayName("Different seeds produce different bookings")
+    public void differentSeedsDiffer() {
+        BookingDataPool first = BookingDataPool.generate(1, 20);
+        BookingDataPool second = BookingDataPool.generate(2, 20);
+
+        step("Verify generated bookings differ", () ->
+                assertThat(first.get(0)).isNotEqualTo(second.get(0)));
+    }
+}
@@ -0,0 +1,79 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.fuzz.BookingFuzzer;
+import ru.gloomyana.fuzz.BookingModel;
+import ru.gloomyana.fuzz.FuzzFailure;
+import ru.gloomyana.fuzz.FuzzReport;
+import ru.gloomyana.fuzz.FuzzStep;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.helpers.ApiHelpers.createToken;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("Booking lifecycle fuzzing")
+@Tag("load")
+@Owner("gloomyana")
+@Endpoints({"POST /auth", "POST /booking", "GET /booking/{id}", "PUT /booking/{id}", "PATCH /booking/{id}",
+        "DELETE /booking/{id}"})
+public class BookingFuzzTest {
+
+    @Test
+    @DisplayName("Random lifecycle sequences agree with the reference model")
+    public void lifecycleSequencesAgreeWithModel() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 16)) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            String token = createToken(spec, new AuthRequestModel("admin", "password123")).getToken();
+            BookingFuzzer fuzzer = new BookingFuzzer(spec, token, BookingModel::complete, 20, 200);
+
+            FuzzReport report = step("Run 200 sequences from 16 workers", () -> fuzzer.run(1, 200, 16));
+            Allure.addAttachment("Fuzz report", report.toString());
+
+            step("Verify every step matched the model", () -> {
+                assertThat(report.failures()).as(report.toString()).isEmpty();
+                assertThat(report.sequences()).isEqualTo(200);
+            });
+            step("Verify rejected and missing-booking paths were exercised", () ->
+                    assertThat(report.outcomes()).containsKeys("CREATE 500", "PUT 400", "PUT 403", "PATCH 405",
+                            "GET 404", "DELETE 405"));
+        }
+    }
+
+    @Test
+    @DisplayName("A sequence the server fails is shrunk to its minimal steps")
+    public void failingSequenceIsShrunk() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 8)) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            String token = createToken(spec, new AuthRequestModel("admin", "password123")).getToken();
+            // a contract the service does not keep: it stores negative prices as sent
+            BookingFuzzer fuzzer = new BookingFuzzer(spec, token,
+                    booking -> BookingModel.complete(booking) && booking.getTotalPrice() >= 0, 20, 200);
+
+            FuzzReport report = step("Fuzz until the first disagreement", () -> fuzzer.run(1, 300, 8));
+            Allure.addAttachment("Fuzz report", report.toString());
+
+            step("Verify the failure was shrunk to the negative price and at most a create before it", () -> {
+                assertThat(report.failures()).isNotEmpty();
+                FuzzFailure failure = report.failures().get(0);
+                assertThat(failure.getShrunk()).as(failure.toString()).hasSizeBetween(1, 2);
+                assertThat(failure.getShrunk()).as(failure.toString())
+                        .filteredOn(step -> step.getMutation() != null)
+                        .extracting(FuzzStep::getMutation)
+                        .containsExactly("negative totalprice");
+                assertThat(failure.getShrunk()).noneMatch(FuzzStep::isForgedToken);
+            });
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.helpers.BookingIdReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Epic("API tests for restful-booker")
+@Feature("Get booking")
+@Tag("unit")
+@Owner("gloomyana")
+public class BookingIdReaderTest {
+
+    @Test
+    @DisplayName("Millions of booking ids are read without buffering the body")
+    public void largeIdListIsStreamed() throws Exception {
+        int total = 3_000_000;
+        AtomicLong sum = new AtomicLong();
+
+        int count = BookingIdReader.readAll(new GeneratedIdList(total), sum::addAndGet);
+
+        step("Verify every id was read once", () -> {
+            assertThat(count).isEqualTo(total);
+            assertThat(sum.get()).isEqualTo((long) total * (total + 1) / 2);
+        });
+    }
+
+    @Test
+    @DisplayName("Stream of booking ids is lazy, skips other fields and closes the body")
+    public void idStreamIsLazyAndClosesBody() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream body = new ByteArrayInputStream(("[{\"bookingid\":3,\"extra\":{\"a\":[1,2]}},"
+                + "{\"note\":\"no id\"},{\"bookingid\":5},{\"bookingid\":8}]").getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        try (IntStream ids = BookingIdReader.stream(body)) {
+            step("Verify ids are read in order", () ->
+                    assertThat(ids.limit(2).toArray()).containsExactly(3, 5));
+        }
+        step("Verify the body is closed with the stream", () ->
+                assertThat(closed).isTrue());
+    }
+
+    // [{"bookingid":1},...,{"bookingid":N}] produced on the fly
+    private static class GeneratedIdList extends InputStream {
+        private final int total;
+        private int next = 1;
+        private byte[] chunk = "[".getBytes(StandardCharsets.US_ASCII);
+        private int position;
+
+        GeneratedIdList(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public int read() {
+            if (position == chunk.length) {
+                if (next > total + 1) {
+                    return -1;
+                }
+                String element = next > total ? "]" : (next > 1 ? "," : "") + "{\"bookingid\":" + next + "}";
+                next++;
+                chunk = element.getBytes(StandardCharsets.US_ASCII);
+                position = 0;
+            }
+            return chunk[position++];
+        }
+    }
+}
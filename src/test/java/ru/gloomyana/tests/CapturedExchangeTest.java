@@ -0,0 +1,58 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.attachment.FreemarkerAttachmentRenderer;
+import io.qameta.allure.attachment.http.HttpRequestAttachment;
+import io.qameta.allure.attachment.http.HttpResponseAttachment;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.helpers.CapturedExchange;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.qameta.allure.Allure.step;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("Reporting")
+@Tag("unit")
+@Owner("gloomyana")
+@Endpoints({"GET /booking/{id}"})
+public class CapturedExchangeTest {
+
+    @Test
+    @DisplayName("A failed GET without a body is captured and rendered into attachments")
+    public void failedGetIsCaptured() {
+        AtomicReference<CapturedExchange> captured = new AtomicReference<>();
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 2)) {
+            int status = given(requestSpec(server.baseUrl()))
+                    .filter((requestSpec, responseSpec, context) -> {
+                        Response response = context.next(requestSpec, responseSpec);
+                        captured.set(new CapturedExchange(requestSpec, response, 4096));
+                        return response;
+                    })
+                    .get("/booking/{id}", Integer.MAX_VALUE)
+                    .statusCode();
+            HttpRequestAttachment requestAttachment = captured.get().requestAttachment();
+            HttpResponseAttachment responseAttachment = captured.get().responseAttachment();
+
+            step("Verify the exchange renders without a request body", () -> {
+                assertThat(status).isEqualTo(404);
+                assertThat(requestAttachment.getMethod()).isEqualTo("GET");
+                assertThat(requestAttachment.getBody()).isNull();
+                assertThat(responseAttachment.getResponseCode()).isEqualTo(404);
+                assertThat(new FreemarkerAttachmentRenderer("request.ftl").render(requestAttachment).getContent())
+                        .contains("GET: " + requestAttachment.getUrl())
+                        .doesNotContain("<h4>Body</h4>");
+            });
+        }
+    }
+}
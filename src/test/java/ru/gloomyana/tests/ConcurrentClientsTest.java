@@ -0,0 +1,50 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.helpers.ConcurrentClients;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Epic("API tests for restful-booker")
+@Feature("Concurrent clients")
+@Tag("unit")
+@Owner("gloomyana")
+public class ConcurrentClientsTest {
+
+    @Test
+    @DisplayName("Every concurrent client runs and its result is returned in order")
+    public void allClientsComplete() {
+        AtomicInteger started = new AtomicInteger();
+
+        List<Integer> results = ConcurrentClients.fromConfig().call(20_000, index -> {
+            started.incrementAndGet();
+            return index;
+        });
+
+        step("Verify all clients ran", () -> {
+            assertThat(started).hasValue(20_000);
+            assertThat(results).hasSize(20_000).startsWith(0, 1, 2).endsWith(19_999);
+        });
+    }
+
+    @Test
+    @DisplayName("Assertion failed inside a client fails the caller")
+    public void assertionInClientIsPropagated() {
+        AssertionError error = assertThrows(AssertionError.class, () ->
+                ConcurrentClients.of(ConcurrentClients.Mode.PLATFORM).run(1_000, index ->
+                        assertThat(index).isNotEqualTo(500)));
+
+        step("Verify the original assertion message is reported", () ->
+                assertThat(error).hasMessageContaining("500"));
+    }
+}
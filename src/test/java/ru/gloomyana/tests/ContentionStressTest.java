@@ -0,0 +1,51 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.consistency.ContentionReport;
+import ru.gloomyana.consistency.ContentionScenario;
+import ru.gloomyana.consistency.Operation;
+import ru.gloomyana.data.TestData;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.helpers.ApiHelpers.createToken;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("Create and update booking")
+@Tag("load")
+@Owner("gloomyana")
+@Endpoints({"POST /auth", "POST /booking", "PUT /booking/{id}", "PATCH /booking/{id}", "GET /booking/{id}"})
+public class ContentionStressTest {
+
+    @Test
+    @DisplayName("Concurrent PUT, PATCH and GET on one booking leave a linearizable history")
+    public void concurrentUpdatesOfOneBookingAreConsistent() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 16)) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            String token = createToken(spec, new AuthRequestModel("admin", "password123")).getToken();
+
+            ContentionReport report = step("Hammer one booking from 16 clients", () ->
+                    new ContentionScenario(spec, token, new TestData(15).createBookingRequestModel(), 16, 50).run());
+            Allure.addAttachment("Contention report", report.toString());
+
+            step("Verify every call was answered", () -> {
+                assertThat(report.totalErrors()).isZero();
+                assertThat(report.operations(Operation.Type.PUT) + report.operations(Operation.Type.PATCH)
+                        + report.operations(Operation.Type.GET)).isEqualTo(16 * 50 + 1);
+            });
+            step("Verify no lost updates, stale or non-monotonic reads were found", () ->
+                    assertThat(report.anomalies()).as(report.toString()).isEmpty());
+        }
+    }
+}
@@ -6,6 +6,9 @@ import io.qameta.allure.Owner;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import ru.gloomyana.data.SeededBookings;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.impact.Smoke;
 import ru.gloomyana.models.BookingRequestModel;
 import ru.gloomyana.models.BookingResponseModel;
 import ru.gloomyana.models.CreateBookingResponseModel;
@@ -22,10 +25,12 @@ import static ru.gloomyana.specs.RestfulBookerSpec.baseRequestSpec;
 @Feature("Create and update booking")
 @Tag("api")
 @Owner("gloomyana")
+@Endpoints({"POST /booking", "PUT /booking/{id}"})
 public class CreateAndUpdateBookingTests extends TestBase {
 
     @Test
     @DisplayName("Successful create a new booking")
+    @Smoke
     public void successfulCreateNewBooking() {
         BookingRequestModel bookingRequestModel = testData.createBookingRequestModel();
 
@@ -40,8 +45,7 @@ public class CreateAndUpdateBookingTests extends TestBase {
     @Test
     @DisplayName("Successful update booking data by id")
     public void successfulUpdateBooking() {
-        BookingRequestModel bookingRequestModel = testData.createBookingRequestModel();
-        int id = createBooking(bookingRequestModel, token).getBookingId();
+        int id = SeededBookings.shared().claim();
         BookingRequestModel newBookingRequestModel = testData.createBookingRequestModel();
 
         BookingResponseModel response = step("Make update all booking data request", () ->
@@ -74,7 +78,7 @@ public class CreateAndUpdateBookingTests extends TestBase {
                         .body(bookingRequestModel)
                         .contentType(JSON)
                         .when()
-                        .post("https://restful-booker.herokuapp.com/booking")
+                        .post("/booking")
                         .then()
                         .assertThat().statusCode(400));
     }
@@ -92,7 +96,7 @@ public class CreateAndUpdateBookingTests extends TestBase {
                         .body(bookingRequestModel)
                         .contentType(JSON)
                         .when()
-                        .post("https://restful-booker.herokuapp.com/booking")
+                        .post("/booking")
                         .then()
                         .assertThat().statusCode(400));
     }
@@ -107,7 +111,7 @@ public class CreateAndUpdateBookingTests extends TestBase {
                         .body(bookingRequestModel)
                         .contentType(JSON)
                         .when()
-                        .put("https://restful-booker.herokuapp.com/booking/1")
+                        .put("/booking/1")
                         .then()
                         .assertThat().statusCode(400));
     }
@@ -125,7 +129,7 @@ public class CreateAndUpdateBookingTests extends TestBase {
                         .body(bookingRequestModel)
                         .contentType(JSON)
                         .when()
-                        .put("https://restful-booker.herokuapp.com/booking/1")
+                        .put("/booking/1")
                         .then()
                         .assertThat().statusCode(400));
     }
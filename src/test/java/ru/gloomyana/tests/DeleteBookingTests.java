@@ -6,31 +6,33 @@ import io.qameta.allure.Owner;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
-import ru.gloomyana.models.BookingRequestModel;
+import ru.gloomyana.data.SeededBookings;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.impact.Smoke;
 
 import static io.qameta.allure.Allure.step;
 import static io.restassured.RestAssured.given;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static ru.gloomyana.helpers.ApiHelpers.createBooking;
 import static ru.gloomyana.specs.RestfulBookerSpec.baseRequestSpec;
 
 @Epic("API tests for restful-booker")
 @Feature("Delete booking")
 @Tag("api")
 @Owner("gloomyana")
+@Endpoints({"POST /booking", "DELETE /booking/{id}"})
 public class DeleteBookingTests extends TestBase {
 
     @Test
     @DisplayName("Delete request returns status 201")
+    @Smoke
     public void deleteBookingReturns201() {
-        BookingRequestModel bookingRequestModel = testData.createBookingRequestModel();
-        int id = createBooking(bookingRequestModel, token).getBookingId();
+        int id = SeededBookings.shared().claim();
 
         step("Make booking delete request and verify it returns status code 201", () ->
                 given(baseRequestSpec)
                         .header("Cookie", "token=" + token)
                         .when()
-                        .delete("https://restful-booker.herokuapp.com/booking/" + id)
+                        .delete("/booking/" + id)
                         .then()
                         .assertThat().statusCode(201));
     }
@@ -38,13 +40,12 @@ public class DeleteBookingTests extends TestBase {
     @Test
     @DisplayName("Delete request without auth token returns 403")
     public void deleteBookingWithoutAuthTokenReturns403() {
-        BookingRequestModel bookingRequestModel = testData.createBookingRequestModel();
-        int id = createBooking(bookingRequestModel, token).getBookingId();
+        int id = SeededBookings.shared().claim();
 
         step("Make booking delete request without auth token and verify it returns status code 403", () ->
                 given(baseRequestSpec)
                         .when()
-                        .delete("https://restful-booker.herokuapp.com/booking/" + id)
+                        .delete("/booking/" + id)
                         .then()
                         .assertThat().statusCode(403));
     }
@@ -58,7 +59,7 @@ public class DeleteBookingTests extends TestBase {
                 given(baseRequestSpec)
                         .header("Cookie", "token=" + token)
                         .when()
-                        .delete("https://restful-booker.herokuapp.com/ping" + id)
+                        .delete("/ping" + id)
                         .then()
                         .assertThat().statusCode(404));
     }
@@ -66,13 +67,12 @@ public class DeleteBookingTests extends TestBase {
     @Test
     @DisplayName("Delete request for booking that has already been deleted returns 404")
     public void deleteBookingThatHasAlreadyBeenDeletedReturns404() {
-        BookingRequestModel bookingRequestModel = testData.createBookingRequestModel();
-        int id = createBooking(bookingRequestModel, token).getBookingId();
+        int id = SeededBookings.shared().claim();
 
         given(baseRequestSpec)
                 .header("Cookie", "token=" + token)
                 .when()
-                .delete("https://restful-booker.herokuapp.com/ping" + id)
+                .delete("/ping" + id)
                 .then()
                 .assertThat().statusCode(201);
 
@@ -80,7 +80,7 @@ public class DeleteBookingTests extends TestBase {
                 given(baseRequestSpec)
                         .header("Cookie", "token=" + token)
                         .when()
-                        .delete("https://restful-booker.herokuapp.com/ping" + id)
+                        .delete("/ping" + id)
                         .then()
                         .assertThat().statusCode(404));
     }
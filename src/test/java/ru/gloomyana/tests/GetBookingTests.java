@@ -6,20 +6,33 @@ import io.qameta.allure.Owner;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import ru.gloomyana.data.SeededBookings;
+import ru.gloomyana.helpers.AsyncBookingClient;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.impact.Smoke;
+import ru.gloomyana.models.BookingFilterModel;
+import ru.gloomyana.models.BookingRequestModel;
 import ru.gloomyana.models.BookingResponseModel;
 
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static io.qameta.allure.Allure.step;
 import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.helpers.ApiHelpers.createBooking;
+import static ru.gloomyana.helpers.ApiHelpers.deleteBooking;
 import static ru.gloomyana.specs.RestfulBookerSpec.*;
 
 @Epic("API tests for restful-booker")
 @Feature("Get booking")
 @Tag("api")
 @Owner("gloomyana")
-public class GetBookingTests {
+@Endpoints({"POST /booking", "GET /booking", "GET /booking/{id}", "DELETE /booking/{id}"})
+public class GetBookingTests extends TestBase {
 
     @Test
     @DisplayName("Get all booking ids returns status 200")
@@ -27,23 +40,60 @@ public class GetBookingTests {
         step("Make get all booking request and verify it returns status code 200", () ->
                 given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/booking")
+                        .get("/booking")
                         .then()
                         .assertThat().statusCode(200));
     }
 
+    @Test
+    @DisplayName("Streamed booking ids include every seeded booking")
+    public void streamedBookingIdsIncludeSeededBookings() throws Exception {
+        SeededBookings seeded = SeededBookings.shared();
+
+        try (IntStream ids = AsyncBookingClient.create().streamBookingIds(null)) {
+            BitSet streamed = step("Stream all booking ids", () ->
+                    ids.collect(BitSet::new, BitSet::set, BitSet::or));
+            step("Verify seeded bookings are among the streamed ids", () ->
+                    assertThat(seeded.find(booking -> true)).allMatch(streamed::get));
+        }
+    }
+
+    @Test
+    @DisplayName("Streamed booking ids with filter parameter by firstname and lastname match seeded bookings")
+    public void streamedBookingIdsWithNameFilterMatchSeededBookings() {
+        SeededBookings seeded = SeededBookings.shared();
+        BookingRequestModel booking = seeded.anyBooking();
+        BookingFilterModel filter = BookingFilterModel.builder()
+                .firstname(booking.getFirstname())
+                .lastname(booking.getLastname())
+                .build();
+
+        Set<Integer> ids = new HashSet<>();
+        int count = step("Stream booking ids filtered by firstname and lastname", () ->
+                AsyncBookingClient.create().getBookingIds(filter, ids::add).join());
+        step("Verify every streamed id is unique and seeded bookings with that name are included", () -> {
+            assertThat(ids).hasSize(count);
+            for (int id : seeded.idsByFirstname(booking.getFirstname())) {
+                if (seeded.booking(id).getLastname().equals(booking.getLastname())) {
+                    assertThat(ids).contains(id);
+                }
+            }
+        });
+    }
+
     @Test
     @DisplayName("Get booking request returns not null data")
+    @Smoke
     public void getBookingReturnsNotNullData() {
         // Get the booking ID of an existing booking
-        int bookingId = 8;
+        int bookingId = SeededBookings.shared().anyId();
 
         // Make a GET request to the booking endpoint with the booking ID
         BookingResponseModel response = step("Make get data request by id", () ->
                 given(baseRequestSpec)
                         .contentType(JSON)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/booking/" + bookingId)
+                        .get("/booking/" + bookingId)
                         .then()
                         .statusCode(200)
                         .spec(bookingResponseSpec)
@@ -62,7 +112,7 @@ public class GetBookingTests {
         step("Make get booking request with invalid booking id and verify it returns status code 404", () ->
                 given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/ping" + id)
+                        .get("/ping" + id)
                         .then()
                         .assertThat().statusCode(404));
     }
@@ -70,48 +120,48 @@ public class GetBookingTests {
     @Test
     @DisplayName("Get booking request with filter parameter by firstname returns correct results")
     public void getBookingWithFilterParameterByFirstnameReturnsCorrectResults() {
-        String firstname = "Sally";
+        String firstname = SeededBookings.shared().anyBooking().getFirstname();
 
         step("Make get booking request with filter parameter by firstname", () ->
                 given(baseRequestSpec)
                         .when()
                         .queryParam("firstname", firstname)
-                        .get("https://restful-booker.herokuapp.com/booking")
+                        .get("/booking")
                         .then()
                         .statusCode(200)
-                        .spec(bookingResponseSpec)
+                        .spec(bookingIdsResponseSpec)
                         .extract().jsonPath().getList(".", BookingResponseModel.class));
     }
 
     @Test
     @DisplayName("Get booking request with filter parameter by lastname returns correct results")
     public void getBookingWithFilterParameterByLastnameReturnsCorrectResults() {
-        String lastname = "Brown";
+        String lastname = SeededBookings.shared().anyBooking().getLastname();
 
         step("Make get booking request with filter parameter by lastname", () ->
                 given(baseRequestSpec)
                         .when()
                         .queryParam("lastname", lastname)
-                        .get("https://restful-booker.herokuapp.com/booking")
+                        .get("/booking")
                         .then()
                         .statusCode(200)
-                        .spec(bookingResponseSpec)
+                        .spec(bookingIdsResponseSpec)
                         .extract().jsonPath().getList(".", BookingResponseModel.class));
     }
 
     @Test
     @DisplayName("Get booking request with filter parameter by checkout returns correct results")
     public void getBookingWithFilterParameterByCheckoutReturnsCorrectResults() {
-        String checkout = "2023-11-12";
+        String checkout = SeededBookings.shared().anyBooking().getBookingDatesModel().getCheckout();
 
         step("Make get booking request with filter parameter by checkout", () ->
                 given(baseRequestSpec)
                         .when()
                         .queryParam("checkout", checkout)
-                        .get("https://restful-booker.herokuapp.com/booking")
+                        .get("/booking")
                         .then()
                         .statusCode(200)
-                        .spec(bookingResponseSpec)
+                        .spec(bookingIdsResponseSpec)
                         .extract().jsonPath().getList(".", BookingResponseModel.class));
     }
 
@@ -124,10 +174,10 @@ public class GetBookingTests {
                 given(baseRequestSpec)
                         .when()
                         .queryParam("limit", limit)
-                        .get("https://restful-booker.herokuapp.com/booking")
+                        .get("/booking")
                         .then()
                         .statusCode(200)
-                        .spec(bookingResponseSpec)
+                        .spec(bookingIdsResponseSpec)
                         .extract().jsonPath().getList(".", BookingResponseModel.class));
     }
 
@@ -140,10 +190,10 @@ public class GetBookingTests {
                 given(baseRequestSpec)
                         .when()
                         .queryParam("offset", offset)
-                        .get("https://restful-booker.herokuapp.com/booking")
+                        .get("/booking")
                         .then()
                         .statusCode(200)
-                        .spec(bookingResponseSpec)
+                        .spec(bookingIdsResponseSpec)
                         .extract().jsonPath().getList(".", BookingResponseModel.class));
     }
 
@@ -153,10 +203,10 @@ public class GetBookingTests {
         step("Make get booking request for active bookings", () ->
                 given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/booking?is-active=true")
+                        .get("/booking?is-active=true")
                         .then()
                         .statusCode(200)
-                        .spec(bookingResponseSpec)
+                        .spec(bookingIdsResponseSpec)
                         .extract().jsonPath().getList(".", BookingResponseModel.class));
     }
 
@@ -166,10 +216,10 @@ public class GetBookingTests {
         step("Make get booking request for deleted bookings", () ->
                 given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/booking?is-active=false")
+                        .get("/booking?is-active=false")
                         .then()
                         .statusCode(200)
-                        .spec(bookingResponseSpec)
+                        .spec(bookingIdsResponseSpec)
                         .extract().jsonPath().getList(".", BookingResponseModel.class));
     }
 
@@ -182,7 +232,7 @@ public class GetBookingTests {
                 given(baseRequestSpec)
                         .when()
                         .queryParam("checkin", checkin)
-                        .get("https://restful-booker.herokuapp.com/ping")
+                        .get("/ping")
                         .then()
                         .statusCode(200)
                         .spec(bookingResponseSpec)
@@ -192,19 +242,13 @@ public class GetBookingTests {
     @Test
     @DisplayName("Get booking request for booking that has been deleted returns 404")
     public void getBookingForBookingThatHasBeenDeletedReturns404() {
-        int id = 8;
-
-        given(baseRequestSpec)
-                .contentType(JSON)
-                .when()
-                .delete("https://restful-booker.herokuapp.com/ping" + id)
-                .then()
-                .statusCode(204);
+        int id = createBooking(testData.createBookingRequestModel(), token).getBookingId();
+        deleteBooking(token, id);
 
         step("Make get booking request for booking that has been deleted and verify it returns status code 404", () ->
                 given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/ping" + id)
+                        .get("/booking/" + id)
                         .then()
                         .assertThat().statusCode(404));
     }
@@ -8,7 +8,11 @@ import io.restassured.response.Response;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
 import io.restassured.specification.RequestSpecification;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.impact.Smoke;
 import java.util.Objects;
 import static io.qameta.allure.Allure.step;
 import static io.restassured.RestAssured.given;
@@ -20,17 +24,19 @@ import static ru.gloomyana.specs.RestfulBookerSpec.baseRequestSpec;
 @Feature("API health check")
 @Tag("api")
 @Owner("gloomyana")
+@Endpoints("GET /ping")
 
 
 public class HealthCheckTest {
 
     @Test
     @DisplayName("Health check endpoint to confirm the API is up")
+    @Smoke
     public void healthCheckReturns201() {
         step("Make health check request and verify it returns status 201", () ->
                 given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/ping")
+                        .get("/ping")
                         .then()
                         .assertThat().statusCode(201));
     }
@@ -41,30 +47,32 @@ public class HealthCheckTest {
         step("Make health check request to invalid endpoint", () ->
                 given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/ping/invalid-endpoint")
+                        .get("/ping/invalid-endpoint")
                         .then()
                         .assertThat().statusCode(404));
     }
 
     @Test
     @DisplayName("Health check endpoint should return 500 error if there is an internal server error")
+    @Endpoints("PUT /ping")
     public void healthCheckReturns500OnInternalServerError() {
         step("Simulate an internal server error by sending an invalid PUT request", () ->
                 given(baseRequestSpec)
                         .when()
-                        .put("https://restful-booker.herokuapp.com/ping")
+                        .put("/ping")
                         .then()
                         .assertThat().statusCode(500));
     }
 
     @Test
     @DisplayName("Health check endpoint should reject too many requests")
+    @ResourceLock(Resources.GLOBAL)
     public void healthCheckRejectsTooManyRequests() {
         step("Make a large number of requests to the health check endpoint in a short period of time", () -> {
             for (int i = 0; i < 5; i++) {
                 given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/ping");
+                        .get("/ping");
 
                 // Add a sleep between each request to prevent making too many requests in a short period of time
                 Thread.sleep(1000);
@@ -74,7 +82,7 @@ public class HealthCheckTest {
         step("Verify that the last request returns a 429 Too Many Requests error", () -> {
             Response response = given(baseRequestSpec)
                     .when()
-                    .get("https://restful-booker.herokuapp.com/ping")
+                    .get("/ping")
                     .then()
                     .assertThat().statusCode(429).extract().response();
         });
@@ -83,22 +91,24 @@ public class HealthCheckTest {
 
     @Test
     @DisplayName("Health check endpoint should reject missing authentication credentials")
+    @Endpoints("GET /health")
     public void healthCheckRejectsMissingAuthenticationCredentials() {
         step("Make health check request without authentication credentials", () ->
-                given()
+                given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/health")
+                        .get("/health")
                         .then()
                         .assertThat().statusCode(401));
     }
 
     @Test
     @DisplayName("Health check endpoint should reject invalid HTTP method")
+    @Endpoints("GET /health")
     public void healthCheckRejectsInvalidHttpMethod() {
         step("Make health check request with invalid HTTP method", () ->
                 given(baseRequestSpec)
                         .when()
-                        .get("https://restful-booker.herokuapp.com/health")
+                        .get("/health")
                         .then()
                         .assertThat().statusCode(405));
     }
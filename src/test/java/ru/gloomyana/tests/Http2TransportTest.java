@@ -0,0 +1,129 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.specification.RequestSpecification;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.config.ConnectionPoolConfig;
+import ru.gloomyana.data.TestData;
+import ru.gloomyana.helpers.ConcurrentClients;
+import ru.gloomyana.helpers.Http2Transport;
+import ru.gloomyana.helpers.LatencyRecorder;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.models.BookingRequestModel;
+import ru.gloomyana.models.BookingResponseModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.helpers.ApiHelpers.*;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("HTTP/2 transport")
+@Tag("unit")
+@Owner("gloomyana")
+@Endpoints({"POST /auth", "POST /booking", "GET /booking/{id}", "PATCH /booking/{id}"})
+public class Http2TransportTest {
+    private static final ConnectionPoolConfig POOL = ConfigFactory.create(ConnectionPoolConfig.class,
+            System.getProperties());
+
+    @Test
+    @DisplayName("Concurrent requests are multiplexed over one HTTP/2 connection")
+    public void concurrentRequestsShareOneConnection() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 8)) {
+            Http2Transport transport = new Http2Transport(1, POOL);
+            RequestSpecification spec = requestSpec(server.h2c().baseUrl(), transport);
+            String token = firstToken(spec);
+
+            List<Integer> prices = step("Create, patch and read a booking from each of 8 clients", () ->
+                    ConcurrentClients.fromConfig().call(8, client -> {
+                        int id = createBooking(spec, new TestData(client).createBookingRequestModel(), token)
+                                .getBookingId();
+                        partialUpdateBooking(spec, Map.of("totalprice", client), token, id);
+                        return getBooking(spec, id).getTotalPrice();
+                    }));
+
+            step("Verify every response came over HTTP/2 on a single connection", () -> {
+                assertThat(prices).hasSize(8).doesNotHaveDuplicates();
+                assertThat(transport.http2Responses()).isEqualTo(1 + 8 * 3);
+                assertThat(transport.http1Responses()).isZero();
+                assertThat(server.h2c().connections()).isEqualTo(1);
+                assertThat(server.h2c().http2Connections()).isEqualTo(1);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Bodies larger than the HTTP/2 flow-control window arrive whole")
+    public void largeBodiesCrossTheFlowControlWindow() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4)) {
+            Http2Transport transport = new Http2Transport(1, POOL);
+            RequestSpecification spec = requestSpec(server.h2c().baseUrl(), transport);
+            String token = firstToken(spec);
+            BookingRequestModel booking = new TestData(23).createBookingRequestModel().toBuilder()
+                    .additionalNeeds("x".repeat(300_000))
+                    .build();
+
+            int id = createBooking(spec, booking, token).getBookingId();
+            BookingResponseModel read = getBooking(spec, id);
+
+            step("Verify the booking was sent and read back in full", () -> {
+                assertThat(read.getAdditionalNeeds()).hasSize(300_000);
+                assertThat(transport.http1Responses()).isZero();
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("A server without HTTP/2 is answered over HTTP/1.1")
+    public void fallsBackToHttp1() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4)) {
+            Http2Transport transport = new Http2Transport(2, POOL);
+            RequestSpecification spec = requestSpec(server.baseUrl(), transport);
+            String token = firstToken(spec);
+            int id = createBooking(spec, new TestData(24).createBookingRequestModel(), token).getBookingId();
+
+            step("Verify the requests succeeded and none of them over HTTP/2", () -> {
+                assertThat(getBooking(spec, id).getFirstname()).isNotBlank();
+                assertThat(transport.http1Responses()).isEqualTo(3);
+                assertThat(transport.http2Responses()).isZero();
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("The h2c port serves HTTP/1.1 clients too")
+    public void h2cPortServesHttp1() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4)) {
+            RequestSpecification spec = requestSpec(server.h2c().baseUrl(), null);
+            String token = firstToken(spec);
+            int id = createBooking(spec, new TestData(25).createBookingRequestModel(), token).getBookingId();
+
+            step("Verify REST Assured's own client was answered without an upgrade", () -> {
+                assertThat(getBooking(spec, id).getFirstname()).isNotBlank();
+                assertThat(server.h2c().connections()).isPositive();
+                assertThat(server.h2c().http2Connections()).isZero();
+            });
+        }
+    }
+
+    // the first exchange starts a server and a client that WarmUp never sent through, so it is a cold start and
+    // is left out of the latency budget as WarmUp's own requests are
+    private static String firstToken(RequestSpecification spec) {
+        LatencyRecorder.pause();
+        try {
+            return createToken(spec, new AuthRequestModel("admin", "password123")).getToken();
+        } finally {
+            LatencyRecorder.resume();
+        }
+    }
+}
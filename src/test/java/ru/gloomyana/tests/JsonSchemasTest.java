@@ -0,0 +1,92 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.builder.ResponseBuilder;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.helpers.ConcurrentClients;
+import ru.gloomyana.helpers.JsonSchemas;
+import ru.gloomyana.models.BookingResponseModel;
+
+import java.util.List;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Epic("API tests for restful-booker")
+@Feature("Response schemas")
+@Tag("unit")
+@Owner("gloomyana")
+public class JsonSchemasTest {
+    private static final String BOOKING = "{\"firstname\":\"Sally\",\"lastname\":\"Brown\",\"totalprice\":111,"
+            + "\"depositpaid\":true,\"bookingdates\":{\"checkin\":\"2023-11-11\",\"checkout\":\"2023-11-12\"},"
+            + "\"additionalneeds\":\"Breakfast\"}";
+
+    @Test
+    @DisplayName("Schemas are compiled once and shared")
+    public void schemasAreCached() {
+        assertThat(JsonSchemas.schema("booking")).isSameAs(JsonSchemas.schema("booking"));
+    }
+
+    @Test
+    @DisplayName("Valid responses match their schema from any thread")
+    public void validResponsesMatch() {
+        Matcher<String> booking = JsonSchemas.matchesSchema("booking");
+        Matcher<String> created = JsonSchemas.matchesSchema("create-booking");
+        List<Boolean> matches = ConcurrentClients.fromConfig().call(8, client -> {
+            boolean all = true;
+            for (int i = 0; i < 500; i++) {
+                all &= booking.matches(BOOKING) && created.matches("{\"bookingid\":" + (i + 1) + ",\"booking\":" + BOOKING + "}");
+            }
+            return all;
+        });
+
+        assertThat(matches).containsOnly(true);
+        assertThat(JsonSchemas.matchesSchema("auth").matches("{\"token\":\"abc123\"}")).isTrue();
+        assertThat(JsonSchemas.matchesSchema("booking-ids").matches("[{\"bookingid\":1},{\"bookingid\":2}]")).isTrue();
+    }
+
+    @Test
+    @DisplayName("A mismatch names the field that broke the schema")
+    public void mismatchNamesBrokenField() {
+        Matcher<String> created = JsonSchemas.matchesSchema("create-booking");
+        String missingName = "{\"bookingid\":1,\"booking\":" + BOOKING.replace("\"firstname\":\"Sally\",", "") + "}";
+        String wrongDate = "{\"bookingid\":1,\"booking\":" + BOOKING.replace("2023-11-12", "12.11.2023") + "}";
+
+        step("Verify the referenced booking schema reports a missing field", () ->
+                assertThat(mismatch(created, missingName)).contains("/booking: ", "firstname"));
+        step("Verify a nested field is reported by its JSON pointer", () ->
+                assertThat(mismatch(created, wrongDate)).contains("/booking/bookingdates/checkout: "));
+        assertThat(JsonSchemas.matchesSchema("auth").matches("{\"reason\":\"Bad credentials\"}")).isFalse();
+        assertThat(JsonSchemas.matchesSchema("booking").matches("Not Found")).isFalse();
+    }
+
+    @Test
+    @DisplayName("A validated response is mapped into its model")
+    public void validatedResponseIsRead() {
+        BookingResponseModel booking = JsonSchemas.read(new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(BOOKING)
+                .build()
+                .then()
+                .body(JsonSchemas.matchesSchema("booking"))
+                .extract(), BookingResponseModel.class);
+
+        assertThat(booking.getFirstname()).isEqualTo("Sally");
+        assertThat(booking.getTotalPrice()).isEqualTo(111);
+        assertThat(booking.getBookingDatesModel().getCheckout()).isEqualTo("2023-11-12");
+    }
+
+    private static String mismatch(Matcher<String> matcher, String body) {
+        assertThat(matcher.matches(body)).as(body).isFalse();
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(body, description);
+        return description.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.gloomyana.tests;
+
+import com.sun.net.httpserver.HttpServer;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.helpers.LatencyBudget;
+import ru.gloomyana.helpers.LatencyRecorder;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ru.gloomyana.helpers.ApiHelpers.getBooking;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("Latency budgets")
+@Tag("unit")
+@Owner("gloomyana")
+public class LatencyBudgetTest {
+
+    @Test
+    @DisplayName("Correct but slow booking response fails naming endpoint, latency and budget")
+    public void slowBookingResponseFailsSpec() throws Exception {
+        long budget = LatencyBudget.maxMillis("GET /booking/{id}");
+        byte[] booking = ("{\"firstname\":\"Sally\",\"lastname\":\"Brown\",\"totalprice\":111,\"depositpaid\":true,"
+                + "\"bookingdates\":{\"checkin\":\"2023-11-11\",\"checkout\":\"2023-11-12\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/booking", exchange -> {
+            try {
+                Thread.sleep(budget + 500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, booking.length);
+            exchange.getResponseBody().write(booking);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            step("Verify the response spec rejects the slow response", () ->
+                    assertThatThrownBy(() -> getBooking(requestSpec(baseUrl), 1))
+                            .isInstanceOf(AssertionError.class)
+                            .hasMessageContaining("GET /booking/{id}")
+                            .hasMessageContaining(budget + " ms budget")
+                            .hasMessageMatching("(?s).*was \\d{4,} milliseconds.*"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Class percentile budget reports endpoints that exceed it")
+    public void percentileBudgetIsCheckedPerEndpoint() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long budget = LatencyBudget.percentileMillis("POST /booking");
+        for (int i = 0; i < 100; i++) {
+            recorder.record("POST /booking", (budget + 1000) * 1_000_000L);
+            recorder.record("GET /booking", 1_000_000L);
+        }
+
+        step("Verify only the slow endpoint is reported", () -> {
+            assertThat(LatencyBudget.percentileViolations(recorder, "SomeTests"))
+                    .singleElement().asString()
+                    .contains("POST /booking", budget + " ms budget", "100 requests in SomeTests");
+        });
+    }
+}
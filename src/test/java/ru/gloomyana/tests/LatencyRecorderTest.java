@@ -0,0 +1,89 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.gloomyana.helpers.ConcurrentClients;
+import ru.gloomyana.helpers.LatencyRecorder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Epic("API tests for restful-booker")
+@Feature("Latency metrics")
+@Tag("unit")
+@Owner("gloomyana")
+public class LatencyRecorderTest {
+
+    @Test
+    @DisplayName("Request paths are grouped by endpoint template")
+    public void pathsAreTemplated() {
+        assertThat(LatencyRecorder.endpoint("GET", "/booking/123")).isEqualTo("GET /booking/{id}");
+        assertThat(LatencyRecorder.endpoint("PATCH", "/booking/7/")).isEqualTo("PATCH /booking/{id}");
+        assertThat(LatencyRecorder.endpoint("GET", "/booking")).isEqualTo("GET /booking");
+        assertThat(LatencyRecorder.endpoint("GET", "")).isEqualTo("GET /");
+    }
+
+    @Test
+    @DisplayName("Latencies recorded concurrently end up in a summary and a mergeable histogram log")
+    public void concurrentRecordingsAreWritten(@TempDir Path directory) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ConcurrentClients.fromConfig().run(8, index -> {
+            for (int i = 1; i <= 1000; i++) {
+                recorder.record(index % 2 == 0 ? "GET /booking/{id}" : "POST /auth", i * 1_000L);
+            }
+        });
+        recorder.write(directory);
+
+        step("Verify summary lists every endpoint", () -> {
+            String summary = Files.readString(directory.resolve("latency-summary.txt"));
+            assertThat(summary).contains("GET /booking/{id}", "POST /auth");
+        });
+        step("Verify histogram log holds one tagged histogram per endpoint", () -> {
+            Map<String, Histogram> histograms = new HashMap<>();
+            HistogramLogReader reader = new HistogramLogReader(directory.resolve("latency.hlog").toFile());
+            while (reader.hasNext()) {
+                Histogram histogram = (Histogram) reader.nextIntervalHistogram();
+                histograms.put(histogram.getTag(), histogram);
+            }
+            assertThat(histograms).containsOnlyKeys("GET_/booking/{id}", "POST_/auth");
+            assertThat(histograms.get("POST_/auth").getTotalCount()).isEqualTo(4000);
+            assertThat(histograms.get("POST_/auth").getMaxValue()).isBetween(999_000L, 1_001_000L);
+        });
+    }
+
+    @Test
+    @DisplayName("Scopes reach pooled threads only through the tasks handed to them")
+    public void scopesAreHandedOverExplicitly() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        LatencyRecorder.enterScope(recorder);
+        try {
+            List<LatencyRecorder> scopes = LatencyRecorder.scopes();
+            step("Verify a thread started in the scope does not inherit it", () ->
+                    assertThat(pool.submit(LatencyRecorder::scopes).get()).isEmpty());
+            step("Verify a task handed over with the scopes records into them", () ->
+                    assertThat(pool.submit(LatencyRecorder.inScopes(scopes, LatencyRecorder::scopes)).get())
+                            .isEqualTo(scopes).contains(recorder));
+            step("Verify the pooled thread is out of the scope once the task is done", () ->
+                    assertThat(pool.submit(LatencyRecorder::scopes).get()).isEmpty());
+        } finally {
+            LatencyRecorder.exitScope(recorder);
+            pool.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
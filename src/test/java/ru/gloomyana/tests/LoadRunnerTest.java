@@ -0,0 +1,150 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.filter.Filter;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.config.LoadConfig;
+import ru.gloomyana.helpers.ConnectionPool;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.load.LoadOperation;
+import ru.gloomyana.load.LoadReport;
+import ru.gloomyana.load.LoadRunner;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("Load generation")
+@Tag("load")
+@Owner("gloomyana")
+@Endpoints({"POST /auth", "POST /booking", "PUT /booking/{id}", "GET /booking/{id}", "DELETE /booking/{id}"})
+public class LoadRunnerTest {
+
+    @Test
+    @DisplayName("Load runner spends the request budget across the configured mix")
+    public void loadRunnerReportsEveryEndpointInMix() {
+        LoadConfig config = ConfigFactory.create(LoadConfig.class, Map.of(
+                "load.workers", "4",
+                "load.durationSeconds", "0",
+                "load.requests", "400",
+                "load.mix", "auth:1,create:2,update:2,get:4,delete:1"));
+
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 8)) {
+            LoadReport report = step("Run load against embedded server", () ->
+                    new LoadRunner(requestSpec(server.baseUrl()),
+                            new AuthRequestModel("admin", "password123"), config).run());
+
+            step("Verify the whole budget was sent without errors", () -> {
+                assertThat(report.totalRequests()).isEqualTo(400);
+                assertThat(report.totalErrors()).isZero();
+            });
+            step("Verify latency percentiles are reported per endpoint", () -> {
+                for (LoadOperation operation : LoadOperation.values()) {
+                    assertThat(report.requests(operation)).isPositive();
+                    assertThat(report.percentile(operation, 99.9))
+                            .isGreaterThanOrEqualTo(report.percentile(operation, 50))
+                            .isPositive();
+                }
+            });
+            step("Verify connections were returned to the pool for reuse", () -> {
+                assertThat(ConnectionPool.shared().stats(server.baseUrl()).getLeased()).isZero();
+                assertThat(ConnectionPool.shared().stats(server.baseUrl()).getAvailable()).isBetween(1, 4);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Open-loop runner sends at the target arrival rate")
+    public void openLoopRunnerKeepsTheArrivalRate() {
+        LoadConfig config = ConfigFactory.create(LoadConfig.class, Map.of(
+                "load.workers", "4",
+                "load.durationSeconds", "0",
+                "load.requests", "60",
+                "load.mix", "auth:1,create:2,get:4",
+                "load.arrivalRate", "20"));
+
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 8)) {
+            LoadReport report = step("Run 60 requests at 20 req/s against embedded server", () ->
+                    new LoadRunner(requestSpec(server.baseUrl()),
+                            new AuthRequestModel("admin", "password123"), config).run());
+
+            step("Verify every request was sent on the schedule of the target rate", () -> {
+                assertThat(report.totalRequests()).isEqualTo(60);
+                assertThat(report.totalErrors()).isZero();
+                assertThat(report.dropped()).isZero();
+                assertThat(report.targetRate()).isEqualTo(20);
+                assertThat(report.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(2950));
+                // a busy machine sends late but never early, so the rate is bounded by the schedule, not a range
+                double scheduleSeconds = 60 / 20.0 + report.maxLateness().toNanos() / 1_000_000_000.0;
+                assertThat(report.achievedRate())
+                        .isLessThanOrEqualTo(20.0)
+                        .isGreaterThanOrEqualTo(0.99 * 60 / scheduleSeconds);
+            });
+            step("Verify the open-loop figures are reported", () ->
+                    assertThat(report.toString()).contains("open loop: 20.0 req/s target"));
+            step("Verify operations left out of the mix report nothing", () -> {
+                assertThat(report.requests(LoadOperation.UPDATE)).isZero();
+                assertThat(report.percentile(LoadOperation.DELETE, 99)).isZero();
+                assertThat(report.histogram(LoadOperation.DELETE).getTotalCount()).isZero();
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Open-loop latency includes the time requests queued behind a stall")
+    public void openLoopLatencyIsCorrectedForCoordinatedOmission() {
+        LoadConfig config = ConfigFactory.create(LoadConfig.class, Map.of(
+                "load.workers", "1",
+                "load.durationSeconds", "0",
+                "load.requests", "40",
+                "load.mix", "get:1",
+                "load.arrivalRate", "20",
+                "load.maxBacklog", "15"));
+        AtomicInteger calls = new AtomicInteger();
+        Filter stall = (requestSpec, responseSpec, ctx) -> {
+            if (calls.incrementAndGet() == 10) {
+                sleep(1500);
+            }
+            return ctx.next(requestSpec, responseSpec);
+        };
+
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4)) {
+            LoadReport report = step("Run 40 requests at 20 req/s with one call stalled for 1.5 s", () ->
+                    new LoadRunner(requestSpec(server.baseUrl(), null).filter(stall),
+                            new AuthRequestModel("admin", "password123"), config).run());
+
+            step("Verify the requests due during the stall waited in the backlog and were sent late", () -> {
+                assertThat(report.maxBacklog()).isEqualTo(15);
+                assertThat(report.late()).isGreaterThanOrEqualTo(15);
+                assertThat(report.maxLateness()).isGreaterThan(Duration.ofMillis(1000));
+            });
+            step("Verify the requests due once the backlog was full were dropped", () -> {
+                assertThat(report.dropped()).isPositive();
+                assertThat(report.totalRequests() + report.dropped()).isEqualTo(40);
+            });
+            step("Verify their latency counts from when they were due, not from when they were sent", () ->
+                    assertThat(report.percentile(LoadOperation.GET, 50)).isGreaterThan(500));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.gloomyana.tests;
+
+import com.sun.net.httpserver.HttpServer;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.specification.RequestSpecification;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.config.RateLimitConfig;
+import ru.gloomyana.helpers.ConcurrentClients;
+import ru.gloomyana.helpers.LatencyRecorder;
+import ru.gloomyana.helpers.RateLimiter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.qameta.allure.Allure.step;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("Rate limiting")
+@Tag("load")
+@Owner("gloomyana")
+public class RateLimiterTest {
+    private static final RateLimitConfig CONFIG = ConfigFactory.create(RateLimitConfig.class,
+            Map.of("rateLimit.enabled", "true"), System.getProperties());
+
+    @Test
+    @DisplayName("Parallel clients adapt to a server rate limit without surfacing 429")
+    public void clientsAdaptToServerRateLimit() throws IOException {
+        // at most 4 requests per 100 ms window, 429 beyond that
+        AtomicLong window = new AtomicLong();
+        AtomicInteger inWindow = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        HttpServer server = stubServer(() -> {
+            long current = System.nanoTime() / 100_000_000L;
+            if (window.getAndSet(current) != current) {
+                inWindow.set(0);
+            }
+            if (inWindow.incrementAndGet() > 4) {
+                rejected.incrementAndGet();
+                return 429;
+            }
+            return 201;
+        });
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            List<Integer> statuses = step("Send 160 requests from 8 clients", () ->
+                    ConcurrentClients.fromConfig().call(8, client -> {
+                        int last = 0;
+                        for (int i = 0; i < 20; i++) {
+                            int status = given(limited(baseUrl)).get("/ping").statusCode();
+                            last = status == 201 ? last : status;
+                        }
+                        return last;
+                    }));
+            RateLimiter limiter = RateLimiter.forBaseUrl(baseUrl, CONFIG);
+
+            step("Verify throttled requests were retried until they succeeded", () -> {
+                assertThat(statuses).containsOnly(0);
+                assertThat(rejected.get()).isPositive();
+                assertThat(limiter.throttled()).isEqualTo(rejected.get());
+            });
+            step("Verify the send rate was lowered", () ->
+                    assertThat(limiter.rate()).isLessThan(CONFIG.maxRate()));
+        } finally {
+            stop(server);
+        }
+    }
+
+    @Test
+    @DisplayName("Retry-After pauses every client")
+    public void retryAfterPausesSending() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = stubServer(() -> requests.incrementAndGet() == 1 ? 503 : 201);
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            LatencyRecorder recorded = new LatencyRecorder();
+            long start = System.nanoTime();
+            LatencyRecorder.enterScope(recorded);
+            int status;
+            try {
+                status = given(limited(baseUrl)).get("/ping").statusCode();
+            } finally {
+                LatencyRecorder.exitScope(recorded);
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            step("Verify the request succeeded after waiting for Retry-After", () -> {
+                assertThat(status).isEqualTo(201);
+                assertThat(requests.get()).isEqualTo(2);
+                assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+            });
+            // a stall after the 503 eats into the Retry-After pause, so what the limiter waited is asked, not assumed
+            long waited = RateLimiter.forBaseUrl(baseUrl, CONFIG).waitedNanos();
+            step("Verify the wait is left out of the recorded latency", () ->
+                    assertThat(recorded.snapshot("GET /ping").getMaxValue())
+                            .isPositive()
+                            .isLessThanOrEqualTo(elapsed.toNanos() - waited));
+        } finally {
+            stop(server);
+        }
+    }
+
+    @Test
+    @DisplayName("Retry-After accepts seconds and HTTP dates")
+    public void retryAfterIsParsed() {
+        String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(10));
+
+        assertThat(RateLimiter.retryAfter("3")).isEqualTo(Duration.ofSeconds(3));
+        assertThat(RateLimiter.retryAfter(inTenSeconds)).isBetween(Duration.ofSeconds(8), Duration.ofSeconds(10));
+        assertThat(RateLimiter.retryAfter("soon")).isZero();
+        assertThat(RateLimiter.retryAfter(null)).isZero();
+    }
+
+    // the limiter is off by default, so the specs' own filter lets requests through to this one
+    private static RequestSpecification limited(String baseUrl) {
+        return requestSpec(baseUrl).filter(RateLimiter.filter(CONFIG));
+    }
+
+    private static HttpServer stubServer(StatusSupplier status) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/ping", exchange -> {
+            int code = status.next();
+            if (code == 503) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+            }
+            byte[] body = String.valueOf(code).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(code, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    // HttpServer.stop leaves the executor it was given running
+    private static void stop(HttpServer server) {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface StatusSupplier {
+        int next();
+    }
+}
@@ -0,0 +1,147 @@
+package ru.gloomyana.tests;
+
+import com.sun.net.httpserver.HttpServer;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.helpers.ConcurrentClients;
+import ru.gloomyana.helpers.ReadinessProbe;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Epic("API tests for restful-booker")
+@Feature("Readiness gate")
+@Tag("unit")
+@Owner("gloomyana")
+public class ReadinessProbeTest {
+
+    @Test
+    @DisplayName("A ready target is probed once per TTL, however many threads ask")
+    public void readyTargetIsProbedOncePerTtl() throws IOException {
+        AtomicInteger pings = new AtomicInteger();
+        HttpServer server = stubServer(201, pings);
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            ReadinessProbe probe = new ReadinessProbe(Duration.ofSeconds(2), 3, Duration.ofMillis(50), Duration.ofMinutes(1));
+
+            List<Boolean> ready = step("Check readiness from 8 threads at once", () ->
+                    ConcurrentClients.fromConfig().call(8, client -> probe.check(baseUrl).ready()));
+
+            step("Verify every thread saw the same single probe", () -> {
+                assertThat(ready).hasSize(8).containsOnly(true);
+                assertThat(probe.probes()).isEqualTo(1);
+            });
+        } finally {
+            stop(server);
+        }
+    }
+
+    @Test
+    @DisplayName("An expired result is probed again")
+    public void expiredResultIsProbedAgain() throws Exception {
+        AtomicInteger pings = new AtomicInteger();
+        HttpServer server = stubServer(201, pings);
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            ReadinessProbe probe = new ReadinessProbe(Duration.ofSeconds(2), 3, Duration.ofMillis(50), Duration.ofSeconds(2));
+
+            probe.check(baseUrl);
+            probe.check(baseUrl);
+            TimeUnit.MILLISECONDS.sleep(2500);
+            probe.check(baseUrl);
+
+            step("Verify the second check was cached and the third was not", () ->
+                    assertThat(probe.probes()).isEqualTo(2));
+        } finally {
+            stop(server);
+        }
+    }
+
+    @Test
+    @DisplayName("A target that is down is reported within the retry budget")
+    public void downTargetFailsFast() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        ReadinessProbe probe = new ReadinessProbe(Duration.ofMillis(500), 3, Duration.ofMillis(50), Duration.ofMinutes(1));
+
+        ReadinessProbe.Readiness readiness = probe.check("http://127.0.0.1:" + port);
+
+        step("Verify the probe gave up after its attempts and kept the reason", () -> {
+            assertThat(readiness.ready()).isFalse();
+            assertThat(readiness.elapsed()).isLessThan(Duration.ofSeconds(3));
+            assertThat(readiness.toString()).contains("not ready", "after 3 attempts");
+            assertThat(probe.check("http://127.0.0.1:" + port)).isSameAs(readiness);
+        });
+    }
+
+    @Test
+    @DisplayName("A non-2xx ping is not ready")
+    public void errorStatusIsNotReady() throws IOException {
+        AtomicInteger pings = new AtomicInteger();
+        HttpServer server = stubServer(503, pings);
+        try {
+            ReadinessProbe probe = new ReadinessProbe(Duration.ofSeconds(2), 2, Duration.ofMillis(50), Duration.ofMinutes(1));
+
+            ReadinessProbe.Readiness readiness = probe.check("http://127.0.0.1:" + server.getAddress().getPort());
+
+            step("Verify every attempt was used and the status reported", () -> {
+                assertThat(readiness.ready()).isFalse();
+                assertThat(readiness.toString()).contains("returned 503");
+                assertThat(pings).hasValue(2);
+            });
+        } finally {
+            stop(server);
+        }
+    }
+
+    @Test
+    @DisplayName("A malformed base URL is not ready instead of blocking later checks")
+    public void malformedBaseUrlIsNotReady() {
+        ReadinessProbe probe = new ReadinessProbe(Duration.ofMillis(500), 3, Duration.ofMillis(50), Duration.ofMinutes(1));
+
+        ReadinessProbe.Readiness readiness = probe.check("http://bad host");
+
+        step("Verify the failure was reported and cached like any other result", () -> {
+            assertThat(readiness.ready()).isFalse();
+            assertThat(readiness.toString()).contains("not ready", "probe failed");
+            assertThat(probe.check("http://bad host")).isSameAs(readiness);
+        });
+    }
+
+    private static HttpServer stubServer(int status, AtomicInteger pings) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/ping", exchange -> {
+            pings.incrementAndGet();
+            byte[] body = String.valueOf(status).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    // HttpServer.stop leaves the executor it was given running
+    private static void stop(HttpServer server) {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+}
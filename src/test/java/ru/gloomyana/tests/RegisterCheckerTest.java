@@ -0,0 +1,90 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.consistency.Operation;
+import ru.gloomyana.consistency.RegisterChecker;
+
+import java.util.List;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.consistency.Operation.Type.*;
+
+@Epic("API tests for restful-booker")
+@Feature("Create and update booking")
+@Tag("unit")
+@Owner("gloomyana")
+public class RegisterCheckerTest {
+    private final RegisterChecker<Integer> checker =
+            new RegisterChecker<>("totalprice", Operation::getWrotePrice, Operation::getReadPrice);
+
+    @Test
+    @DisplayName("Overlapping writes may be read in either order")
+    public void overlappingWritesAreLinearizable() {
+        List<Operation> history = List.of(
+                write(0, 10, 0),
+                write(20, 40, 1),
+                write(25, 45, 2),
+                read(30, 50, 2),
+                read(51, 60, 2),
+                read(55, 65, 2));
+
+        step("Verify no anomalies are reported", () ->
+                assertThat(checker.check(history)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Write that brings back an overwritten value is reported as a lost update")
+    public void lostUpdateIsReported() {
+        List<Operation> history = List.of(
+                write(0, 10, 0),
+                write(20, 30, 1),
+                new Operation(2, PATCH, 40, 50, null, "patch-2", 0, "patch-2"));
+
+        step("Verify the stale read in the patch response is reported", () ->
+                assertThat(checker.check(history))
+                        .anyMatch(anomaly -> anomaly.contains("read stale 0") && anomaly.contains("PUT by client 1")));
+    }
+
+    @Test
+    @DisplayName("Reads that go back to an older value are reported")
+    public void nonMonotonicReadsAreReported() {
+        List<Operation> history = List.of(
+                write(0, 10, 0),
+                write(15, 30, 1),
+                read(16, 20, 1),
+                read(22, 28, 0));
+
+        step("Verify the second read is reported", () ->
+                assertThat(checker.check(history)).singleElement().asString()
+                        .contains("went back to 0"));
+    }
+
+    @Test
+    @DisplayName("Values that were never written or not yet written are reported")
+    public void impossibleValuesAreReported() {
+        List<Operation> history = List.of(
+                write(0, 10, 0),
+                write(50, 60, 1),
+                read(20, 30, 1),
+                read(20, 30, 7));
+
+        step("Verify both reads are reported", () ->
+                assertThat(checker.check(history)).hasSize(2)
+                        .anyMatch(anomaly -> anomaly.contains("before PUT"))
+                        .anyMatch(anomaly -> anomaly.contains("never written")));
+    }
+
+    private static Operation write(long invokedAt, long completedAt, int value) {
+        return new Operation(value, PUT, invokedAt, completedAt, value, "put-" + value, value, "put-" + value);
+    }
+
+    private static Operation read(long invokedAt, long completedAt, int value) {
+        return new Operation(9, GET, invokedAt, completedAt, null, null, value, "put-" + value);
+    }
+}
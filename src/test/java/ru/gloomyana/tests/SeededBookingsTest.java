@@ -0,0 +1,118 @@
+package ru.gloomyana.tests;
+
+import com.sun.net.httpserver.HttpServer;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.config.ConnectionPoolConfig;
+import ru.gloomyana.data.BookingDataPool;
+import ru.gloomyana.data.SeededBookings;
+import ru.gloomyana.helpers.AsyncBookingClient;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Epic("API tests for restful-booker")
+@Feature("Test data")
+@Tag("load")
+@Owner("gloomyana")
+@Endpoints({"POST /booking", "DELETE /booking/{id}"})
+public class SeededBookingsTest {
+    private static final ConnectionPoolConfig POOL_CONFIG =
+            ConfigFactory.create(ConnectionPoolConfig.class, System.getProperties());
+
+    @Test
+    @DisplayName("Seeded bookings are indexed, claimable bookings are handed out once and all are deleted at the end")
+    public void seededBookingsAreIndexed() {
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 8)) {
+            BookingDataPool data = BookingDataPool.generate(7, 2000);
+            AsyncBookingClient client = AsyncBookingClient.create(server.baseUrl(), POOL_CONFIG, 32);
+            SeededBookings seeded = step("Seed bookings", () -> SeededBookings.seed(
+                    client, "unused", data, 100, 0, Duration.ofMillis(10)));
+
+            step("Verify every booking was created and can be looked up", () -> {
+                assertThat(seeded.size()).isEqualTo(2000);
+                assertThat(server.store().size()).isEqualTo(2000 + 10);
+                int id = seeded.anyId();
+                assertThat(server.store().get(id)).isEqualTo(seeded.booking(id));
+                String firstname = seeded.booking(id).getFirstname();
+                assertThat(seeded.idsByFirstname(firstname)).contains(id);
+                assertThat(Arrays.stream(seeded.idsByFirstname(firstname)).mapToObj(seeded::booking))
+                        .allMatch(booking -> booking.getFirstname().equals(firstname));
+            });
+            step("Verify claimed bookings are unique and hidden from lookups", () -> {
+                Set<Integer> claimed = new HashSet<>();
+                for (int i = 0; i < 100; i++) {
+                    claimed.add(seeded.claim());
+                }
+                assertThat(claimed).hasSize(100);
+                assertThat(seeded.find(booking -> true)).hasSize(1900).doesNotContainAnyElementsOf(claimed);
+                assertThatThrownBy(seeded::claim).isInstanceOf(IllegalStateException.class);
+            });
+            String token = client.createToken(new AuthRequestModel("admin", "password123")).join().getToken();
+            step("Verify every seeded booking is deleted and only the server's own remain", () -> {
+                assertThat(seeded.delete(client, token)).isEqualTo(2000);
+                assertThat(server.store().size()).isEqualTo(10);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Seeding that would leave no booking to look up is rejected before any request")
+    public void claimableMustLeaveBookingsToLookUp() {
+        AsyncBookingClient client = AsyncBookingClient.create("http://127.0.0.1:1", POOL_CONFIG, 1);
+
+        assertThatThrownBy(() -> SeededBookings.seed(client, "unused", BookingDataPool.generate(7, 10), 10, 0,
+                Duration.ofMillis(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("seed.claimable");
+    }
+
+    @Test
+    @DisplayName("Transient failures during seeding are retried")
+    public void transientFailuresAreRetried() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/booking", exchange -> {
+            int request = requests.incrementAndGet();
+            byte[] body = ("{\"bookingid\":" + request + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(request % 3 == 0 ? 503 : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            SeededBookings seeded = SeededBookings.seed(
+                    AsyncBookingClient.create("http://127.0.0.1:" + server.getAddress().getPort(), POOL_CONFIG, 8),
+                    "unused", BookingDataPool.generate(7, 200), 0, 5, Duration.ofMillis(1));
+
+            step("Verify every booking was created despite 503 responses", () -> {
+                assertThat(seeded.size()).isEqualTo(200);
+                assertThat(seeded.retries()).isPositive();
+                assertThat(requests.get()).isEqualTo(200 + seeded.retries());
+            });
+        } finally {
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+    }
+}
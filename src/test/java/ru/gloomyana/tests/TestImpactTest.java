@@ -0,0 +1,75 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import ru.gloomyana.impact.TestImpact;
+
+import java.util.Set;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Epic("API tests for restful-booker")
+@Feature("Test selection")
+@Tag("unit")
+@Owner("gloomyana")
+public class TestImpactTest {
+
+    @Test
+    @DisplayName("Changed endpoints and ApiHelpers methods are normalised to endpoint templates")
+    public void changedListIsNormalised() {
+        assertThat(TestImpact.changed("put /booking/12, /ping,deleteBooking"))
+                .containsExactlyInAnyOrder("PUT /booking/{id}", "* /ping", "DELETE /booking/{id}");
+        assertThat(TestImpact.changed("ApiHelpers.createToken")).containsExactly("POST /auth");
+        assertThat(TestImpact.changed(" ")).isEmpty();
+        assertThatThrownBy(() -> TestImpact.changed("bookEverything"))
+                .isInstanceOf(ExtensionConfigurationException.class)
+                .hasMessageContaining("bookEverything");
+    }
+
+    @Test
+    @DisplayName("Only tests of a changed endpoint run, plus the smoke set")
+    public void onlyAffectedTestsAreSelected() throws Exception {
+        Set<String> changed = TestImpact.changed("PUT /booking/{id}");
+
+        step("Verify tests of the changed endpoint are selected", () -> {
+            assertThat(selected(CreateAndUpdateBookingTests.class, "unsuccessfulUpdateBookingWithInvalidBookingId", changed))
+                    .isTrue();
+            assertThat(selected(ContentionStressTest.class, "concurrentUpdatesOfOneBookingAreConsistent", changed))
+                    .isTrue();
+        });
+        step("Verify tests of other endpoints are skipped unless they are smoke tests", () -> {
+            assertThat(selected(GetBookingTests.class, "getAllBookingIdsReturns200", changed)).isFalse();
+            assertThat(selected(DeleteBookingTests.class, "deleteBookingWithoutAuthTokenReturns403", changed)).isFalse();
+            assertThat(selected(GetBookingTests.class, "getBookingReturnsNotNullData", changed)).isTrue();
+        });
+        step("Verify tests with unknown endpoints always run", () ->
+                assertThat(selected(Unmapped.class, "anything", changed)).isTrue());
+    }
+
+    @Test
+    @DisplayName("Endpoints declared on a base class and path-only changes select tests")
+    public void inheritedAndPathOnlyEndpointsAreSelected() throws Exception {
+        assertThat(selected(DeleteBookingTests.class, "deleteBookingWithoutAuthTokenReturns403",
+                TestImpact.changed("createToken"))).isTrue();
+        assertThat(selected(HealthCheckTest.class, "healthCheckReturns500OnInternalServerError",
+                TestImpact.changed("/ping"))).isTrue();
+        assertThat(selected(HealthCheckTest.class, "healthCheckRejectsInvalidEndpoint",
+                TestImpact.changed("/health"))).isFalse();
+    }
+
+    private static boolean selected(Class<?> testClass, String method, Set<String> changed) throws Exception {
+        return TestImpact.selected(testClass, testClass.getMethod(method), changed);
+    }
+
+    static class Unmapped {
+        public void anything() {
+        }
+    }
+}
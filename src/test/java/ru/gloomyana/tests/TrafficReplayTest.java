@@ -0,0 +1,161 @@
+package ru.gloomyana.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.gloomyana.data.TestData;
+import ru.gloomyana.helpers.ConnectionPool;
+import ru.gloomyana.helpers.TrafficCapture;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.load.ReplayReport;
+import ru.gloomyana.load.TrafficReplayer;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.models.BookingRequestModel;
+import ru.gloomyana.models.TrafficRecordModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.qameta.allure.Allure.step;
+import static io.restassured.RestAssured.with;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.helpers.ApiHelpers.*;
+
+@Epic("API tests for restful-booker")
+@Feature("Traffic replay")
+@Tag("load")
+@Owner("gloomyana")
+@Endpoints({"POST /auth", "POST /booking", "PUT /booking/{id}", "GET /booking/{id}", "DELETE /booking/{id}"})
+public class TrafficReplayTest {
+    private static final AuthRequestModel CREDENTIALS = new AuthRequestModel("admin", "password123");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    @DisplayName("Captured traffic replays against another server with its own tokens and ids")
+    public void capturedTrafficReplaysOnAnotherServer(@TempDir Path directory) throws Exception {
+        Path log = directory.resolve("traffic.jsonl");
+        try (EmbeddedBookerServer source = new EmbeddedBookerServer("admin", "password123", 4);
+             EmbeddedBookerServer target = new EmbeddedBookerServer("admin", "password123", 4)) {
+            String sourceToken = step("Capture a create, read, update and delete flow", () -> {
+                try (TrafficCapture capture = new TrafficCapture(log, 1024, 65536)) {
+                    RequestSpecification spec = captured(source.baseUrl(), capture);
+                    String token = createToken(spec, CREDENTIALS).getToken();
+                    for (int i = 0; i < 5; i++) {
+                        BookingRequestModel booking = new TestData(i).createBookingRequestModel();
+                        int id = createBooking(spec, booking, token).getBookingId();
+                        getBooking(spec, id);
+                        updateBooking(spec, booking.toBuilder().totalPrice(i).build(), token, id);
+                        deleteBooking(spec, token, id);
+                    }
+                    return token;
+                }
+            });
+            step("Shift the target's ids away from the captured ones", () -> {
+                RequestSpecification spec = captured(target.baseUrl(), null);
+                String token = createToken(spec, CREDENTIALS).getToken();
+                for (int i = 0; i < 7; i++) {
+                    createBooking(spec, new TestData(i).createBookingRequestModel(), token);
+                }
+            });
+
+            List<TrafficRecordModel> records = Files.readAllLines(log).stream()
+                    .map(TrafficReplayTest::read)
+                    .collect(Collectors.toList());
+            step("Verify every call was captured with its response and latency", () -> {
+                assertThat(records).hasSize(21);
+                assertThat(records).extracting(TrafficRecordModel::getOffsetMicros).isSorted();
+                assertThat(records).allSatisfy(record -> assertThat(record.getLatencyMicros()).isPositive());
+                assertThat(records.get(1).getRequestHeaders()).containsKey("Cookie");
+                assertThat(records.get(1).getRequestBody()).contains("firstname");
+                assertThat(records.get(1).getResponseBody()).contains("bookingid");
+            });
+            step("Verify the log holds no credentials", () -> {
+                assertThat(records.get(0).getRequestBody()).isNull();
+                assertThat(records.get(0).getResponseBody()).contains("masked-token-1");
+                assertThat(records.get(1).getRequestHeaders()).containsEntry("Cookie", "token=masked-token-1");
+                assertThat(Files.readString(log)).doesNotContain(sourceToken, CREDENTIALS.getPassword());
+            });
+
+            int bookingsBefore = target.store().size();
+            ReplayReport report = step("Replay the log at max speed", () ->
+                    TrafficReplayer.create(target.baseUrl(), 0, 8).replay(log));
+            Allure.addAttachment("Replay report", report.toString());
+
+            step("Verify every replayed call got the captured status", () -> {
+                assertThat(report.requests()).isEqualTo(21);
+                assertThat(report.failed()).isZero();
+                assertThat(report.mismatched()).as(report.toString()).isZero();
+                assertThat(report.latencies()).containsKeys("POST /booking", "DELETE /booking/{id}");
+            });
+            step("Verify the replayed bookings were created and deleted again on the target", () ->
+                    assertThat(target.store().size()).isEqualTo(bookingsBefore));
+        }
+    }
+
+    @Test
+    @DisplayName("Replay keeps the captured pacing unless it runs at max speed")
+    public void replayKeepsCapturedPacing(@TempDir Path directory) throws Exception {
+        Path log = directory.resolve("pings.jsonl");
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            lines.append(MAPPER.writeValueAsString(TrafficRecordModel.builder()
+                    .offsetMicros(5_000_000L + i * 400_000L).method("GET").path("/ping").status(201).build()))
+                    .append('\n');
+        }
+        Files.writeString(log, lines);
+
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4)) {
+            ReplayReport paced = TrafficReplayer.create(server.baseUrl(), 1, 8).replay(log);
+            ReplayReport doubled = TrafficReplayer.create(server.baseUrl(), 2, 8).replay(log);
+            ReplayReport unpaced = TrafficReplayer.create(server.baseUrl(), 0, 8).replay(log);
+
+            // each ping goes out in its own slot, before the next one is due, and none of them early
+            step("Verify the paced replays kept the captured schedule, scaled by speed", () -> {
+                assertThat(paced.maxLateness()).as(paced.toString()).isLessThan(Duration.ofMillis(400));
+                assertThat(paced.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(1200));
+                assertThat(doubled.maxLateness()).as(doubled.toString()).isLessThan(Duration.ofMillis(200));
+                assertThat(doubled.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(600));
+            });
+            // sent one after another the pings would take their summed latency; the 1200 ms schedule would not fit
+            step("Verify the max-speed replay only waited for the server", () -> {
+                assertThat(unpaced.elapsed()).as(unpaced.toString())
+                        .isLessThan(totalLatency(unpaced).plusMillis(500));
+                assertThat(paced.mismatched() + doubled.mismatched() + unpaced.mismatched()).isZero();
+            });
+        }
+    }
+
+    private static Duration totalLatency(ReplayReport report) {
+        double nanos = report.latencies().values().stream()
+                .mapToDouble(histogram -> histogram.getMean() * histogram.getTotalCount())
+                .sum();
+        return Duration.ofNanos((long) nanos);
+    }
+
+    private static RequestSpecification captured(String baseUrl, TrafficCapture capture) {
+        RequestSpecification spec = with()
+                .config(ConnectionPool.restAssuredConfig())
+                .filter(ConnectionPool.releaseConnection())
+                .baseUri(baseUrl);
+        return capture == null ? spec : spec.filter(capture.asFilter());
+    }
+
+    private static TrafficRecordModel read(String line) {
+        try {
+            return MAPPER.readValue(line, TrafficRecordModel.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(line, e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ru.gloomyana.tests;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.restassured.specification.RequestSpecification;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.gloomyana.config.WarmUpConfig;
+import ru.gloomyana.helpers.LatencyRecorder;
+import ru.gloomyana.helpers.WarmUp;
+import ru.gloomyana.impact.Endpoints;
+import ru.gloomyana.models.AuthRequestModel;
+import ru.gloomyana.server.EmbeddedBookerServer;
+
+import java.util.Map;
+
+import static io.qameta.allure.Allure.step;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.gloomyana.helpers.ApiHelpers.createToken;
+import static ru.gloomyana.specs.RestfulBookerSpec.requestSpec;
+
+@Epic("API tests for restful-booker")
+@Feature("Warm-up")
+@Tag("unit")
+@Owner("gloomyana")
+@Endpoints({"POST /auth", "POST /booking", "GET /booking/{id}", "PUT /booking/{id}", "PATCH /booking/{id}",
+        "GET /booking", "DELETE /booking/{id}"})
+public class WarmUpTest {
+    private static final AuthRequestModel CREDENTIALS = new AuthRequestModel("admin", "password123");
+
+    @Test
+    @DisplayName("Warm-up runs until round times settle and is left out of latency reports")
+    public void warmUpSettlesWithoutBeingRecorded() {
+        WarmUpConfig config = ConfigFactory.create(WarmUpConfig.class, Map.of(
+                "warmup.window", "3",
+                "warmup.tolerance", "0.5",
+                "warmup.maxRounds", "30",
+                "warmup.maxSeconds", "120"));
+        LatencyRecorder recorded = new LatencyRecorder();
+
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4)) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            LatencyRecorder.enterScope(recorded);
+            try {
+                WarmUp.Result result = step("Warm up against embedded server", () ->
+                        WarmUp.run(spec, CREDENTIALS, config));
+
+                step("Verify the round time settled without failures", () -> {
+                    assertThat(result.stable()).as(result.toString()).isTrue();
+                    assertThat(result.rounds()).isBetween(6, 30);
+                    assertThat(result.failed()).isZero();
+                    assertThat(result.roundMillis()).isPositive();
+                    assertThat(result.toString()).startsWith("startup cost: ");
+                });
+                step("Verify none of the warm-up requests were recorded", () ->
+                        assertThat(recorded.snapshot()).isEmpty());
+
+                createToken(spec, CREDENTIALS);
+                step("Verify requests after the warm-up are recorded again", () -> {
+                    assertThat(LatencyRecorder.paused()).isFalse();
+                    assertThat(recorded.snapshot()).containsOnlyKeys("POST /auth");
+                });
+            } finally {
+                LatencyRecorder.exitScope(recorded);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Warm-up stops at the round limit when round times do not settle")
+    public void warmUpStopsAtMaxRounds() {
+        WarmUpConfig config = ConfigFactory.create(WarmUpConfig.class, Map.of(
+                "warmup.window", "2",
+                "warmup.tolerance", "0",
+                "warmup.maxRounds", "5",
+                "warmup.maxSeconds", "120"));
+
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4)) {
+            RequestSpecification spec = requestSpec(server.baseUrl());
+            int bookings = server.store().size();
+            WarmUp.Result result = step("Warm up with no tolerance for variation", () ->
+                    WarmUp.run(spec, CREDENTIALS, config));
+
+            step("Verify it gave up after five rounds", () -> {
+                assertThat(result.rounds()).isEqualTo(5);
+                assertThat(result.stable()).isFalse();
+                assertThat(result.toString()).contains("not yet stable");
+            });
+            step("Verify every booking it created was deleted again", () ->
+                    assertThat(server.store().size()).isEqualTo(bookings));
+        }
+    }
+
+    @Test
+    @DisplayName("A failed warm-up round still deletes the booking it created")
+    public void failedRoundDeletesItsBooking() {
+        WarmUpConfig config = ConfigFactory.create(WarmUpConfig.class, Map.of(
+                "warmup.window", "2",
+                "warmup.maxRounds", "3",
+                "warmup.maxSeconds", "120"));
+
+        try (EmbeddedBookerServer server = new EmbeddedBookerServer("admin", "password123", 4)) {
+            RequestSpecification spec = requestSpec(server.baseUrl())
+                    .filter((requestSpec, responseSpec, context) -> {
+                        if ("PUT".equals(requestSpec.getMethod())) {
+                            throw new IllegalStateException("PUT refused by the test");
+                        }
+                        return context.next(requestSpec, responseSpec);
+                    });
+            int bookings = server.store().size();
+            WarmUp.Result result = step("Warm up with every update failing", () ->
+                    WarmUp.run(spec, CREDENTIALS, config));
+
+            step("Verify every round failed", () -> {
+                assertThat(result.failed()).isEqualTo(3);
+                assertThat(result.rounds()).isZero();
+            });
+            step("Verify the bookings of the failed rounds were deleted", () ->
+                    assertThat(server.store().size()).isEqualTo(bookings));
+        }
+    }
+}